@@ -2,12 +2,17 @@ package me.dio.rodolfohok.beerstock;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class BeerstockApplication {
 
+	private static final int STARTUP_TIMELINE_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(BeerstockApplication.class, args);
+		SpringApplication application = new SpringApplication(BeerstockApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_TIMELINE_CAPACITY));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,186 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.replication.ReplicationCodec;
+import org.h2.engine.Session;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.db.MVTableEngine;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary checkpoint of the {@code Beer} table for the persistent profile. The H2 file store keeps
+ * the data across restarts; the checkpoint covers the cases where the store is empty, a lost or
+ * freshly provisioned data directory, and restores it with batched JDBC inserts instead of one
+ * {@code BeerService.createBeer} round trip per beer.
+ * <p>
+ * The checkpoint is rewritten on a schedule to a temporary file and moved into place, and each
+ * run also flushes the store and compacts the database file online for a bounded time. Only live
+ * beers are written; tombstones do not survive a restore from the checkpoint.
+ */
+@Slf4j
+public class BeerCatalogCheckpoint implements ApplicationRunner {
+
+    static final int MAGIC = 0x4243504B;
+    static final byte VERSION = 1;
+    private static final int COUNT_OFFSET = 5;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String INSERT_BEER =
+            "insert into beer (id, name, brand, max, quantity, type) values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path file;
+    private final Duration maxCompactTime;
+    private final CatalogVersion catalogVersion;
+
+    public BeerCatalogCheckpoint(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Path file,
+                                 Duration maxCompactTime, CatalogVersion catalogVersion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.file = file;
+        this.maxCompactTime = maxCompactTime;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from beer", Integer.class);
+        if (rows != null && rows > 0) {
+            log.info("Beer table already holds {} rows, not loading checkpoint {}", rows, file);
+            return;
+        }
+        long start = System.nanoTime();
+        int loaded = load();
+        catalogVersion.bump();
+        log.info("Loaded {} beers from checkpoint {} in {} ms", loaded, file,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @Scheduled(initialDelayString = "${beerstock.checkpoint.interval-millis:300000}",
+            fixedDelayString = "${beerstock.checkpoint.interval-millis:300000}")
+    public void checkpoint() throws IOException {
+        long start = System.nanoTime();
+        int written = write();
+        compact();
+        log.info("Wrote checkpoint of {} beers to {} in {} ms", written, file,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    int write() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        int count;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            data.writeInt(MAGIC);
+            data.writeByte(VERSION);
+            data.writeInt(0);
+            count = streamRows(data);
+            data.flush();
+            // the row count is only known once the rows are written
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, count), COUNT_OFFSET);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    int load() throws IOException {
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            int magic = data.readInt();
+            byte version = data.readByte();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException(String.format("%s is not a version %s beer checkpoint", file, VERSION));
+            }
+            int count = data.readInt();
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+                long maxId = 0;
+                try {
+                    for (int i = 0; i < count; i++) {
+                        Beer beer = ReplicationCodec.readBeer(data);
+                        maxId = Math.max(maxId, beer.getId());
+                        batch.add(new Object[]{beer.getId(), beer.getName(), beer.getBrand(), beer.getMax(),
+                                beer.getQuantity(), beer.getType().name()});
+                        if (batch.size() == INSERT_BATCH_SIZE) {
+                            jdbcTemplate.batchUpdate(INSERT_BEER, batch);
+                            batch.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_BEER, batch);
+                }
+                // explicit ids do not move the identity, new beers must not collide with restored ones
+                jdbcTemplate.execute("alter table beer alter column id restart with " + (maxId + 1));
+            });
+            return count;
+        }
+    }
+
+    private int streamRows(DataOutputStream data) {
+        int[] count = {0};
+        jdbcTemplate.query("select id, name, brand, max, quantity, type from beer where deleted_at is null order by id", resultSet -> {
+            Beer beer = new Beer(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3),
+                    resultSet.getInt(4), resultSet.getInt(5), BeerType.valueOf(resultSet.getString(6)));
+            try {
+                ReplicationCodec.writeBeer(beer, data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private void compact() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CHECKPOINT SYNC");
+            }
+            Object session = connection.unwrap(JdbcConnection.class).getSession();
+            if (session instanceof Session) {
+                MVTableEngine.Store store = ((Session) session).getDatabase().getStore();
+                if (store != null) {
+                    store.compactFile(maxCompactTime.toMillis());
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, off-heap copy of the beer catalog. Everything lives in one direct buffer made of
+ * three regions:
+ * <ul>
+ *     <li>fixed-width records: id, max, quantity, name and brand references and type ordinal;</li>
+ *     <li>an open-addressing hash index from name to record number (linear probing);</li>
+ *     <li>a string pool holding each distinct name and brand once, as length-prefixed UTF-8.</li>
+ * </ul>
+ * Only the buffer and a handful of fields stay on the heap, whatever the catalog size.
+ */
+public final class BeerCatalogSnapshot {
+
+    private static final int RECORD_SIZE = 32;
+    private static final int ID_OFFSET = 0;
+    private static final int MAX_OFFSET = 8;
+    private static final int QUANTITY_OFFSET = 12;
+    private static final int NAME_OFFSET = 16;
+    private static final int BRAND_OFFSET = 20;
+    private static final int TYPE_OFFSET = 24;
+    private static final int INDEX_SLOT_SIZE = Integer.BYTES;
+    private static final int EMPTY_SLOT = 0;
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int indexStart;
+    private final int indexMask;
+    private final int poolStart;
+
+    private BeerCatalogSnapshot(ByteBuffer buffer, int size, int indexStart, int indexCapacity, int poolStart) {
+        this.buffer = buffer;
+        this.size = size;
+        this.indexStart = indexStart;
+        this.indexMask = indexCapacity - 1;
+        this.poolStart = poolStart;
+    }
+
+    public static BeerCatalogSnapshot of(List<Beer> beers) {
+        int size = beers.size();
+        int indexCapacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+
+        Map<String, Integer> poolOffsets = new HashMap<>();
+        List<byte[]> poolEntries = new ArrayList<>();
+        int[] nameRefs = new int[size];
+        int[] brandRefs = new int[size];
+        int poolSize = 0;
+        for (int i = 0; i < size; i++) {
+            Beer beer = beers.get(i);
+            for (int field = 0; field < 2; field++) {
+                String value = field == 0 ? beer.getName() : beer.getBrand();
+                Integer offset = poolOffsets.get(value);
+                if (offset == null) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    offset = poolSize;
+                    poolOffsets.put(value, offset);
+                    poolEntries.add(bytes);
+                    poolSize += Integer.BYTES + bytes.length;
+                }
+                if (field == 0) {
+                    nameRefs[i] = offset;
+                } else {
+                    brandRefs[i] = offset;
+                }
+            }
+        }
+
+        int indexStart = size * RECORD_SIZE;
+        int poolStart = indexStart + indexCapacity * INDEX_SLOT_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(poolStart + poolSize);
+
+        for (int i = 0; i < size; i++) {
+            Beer beer = beers.get(i);
+            int record = i * RECORD_SIZE;
+            buffer.putLong(record + ID_OFFSET, beer.getId());
+            buffer.putInt(record + MAX_OFFSET, beer.getMax());
+            buffer.putInt(record + QUANTITY_OFFSET, beer.getQuantity());
+            buffer.putInt(record + NAME_OFFSET, nameRefs[i]);
+            buffer.putInt(record + BRAND_OFFSET, brandRefs[i]);
+            buffer.put(record + TYPE_OFFSET, (byte) beer.getType().ordinal());
+
+            int slot = hash(beer.getName()) & (indexCapacity - 1);
+            while (buffer.getInt(indexStart + slot * INDEX_SLOT_SIZE) != EMPTY_SLOT) {
+                slot = (slot + 1) & (indexCapacity - 1);
+            }
+            buffer.putInt(indexStart + slot * INDEX_SLOT_SIZE, i + 1);
+        }
+
+        int position = poolStart;
+        for (byte[] bytes : poolEntries) {
+            buffer.putInt(position, bytes.length);
+            buffer.put(position + Integer.BYTES, bytes);
+            position += Integer.BYTES + bytes.length;
+        }
+        return new BeerCatalogSnapshot(buffer.asReadOnlyBuffer(), size, indexStart, indexCapacity, poolStart);
+    }
+
+    /**
+     * Whether both snapshots were packed from the same beers in the same order, byte for byte.
+     */
+    public boolean hasSameContent(BeerCatalogSnapshot other) {
+        return other != null && buffer.equals(other.buffer);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Optional<BeerDTO> findByName(String name) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(name) & indexMask;
+        int recordNumber;
+        while ((recordNumber = buffer.getInt(indexStart + slot * INDEX_SLOT_SIZE)) != EMPTY_SLOT) {
+            int record = (recordNumber - 1) * RECORD_SIZE;
+            if (poolEntryEquals(buffer.getInt(record + NAME_OFFSET), nameBytes)) {
+                return Optional.of(toDTO(record));
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return Optional.empty();
+    }
+
+    public List<BeerDTO> listAll() {
+        List<BeerDTO> beers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            beers.add(toDTO(i * RECORD_SIZE));
+        }
+        return beers;
+    }
+
+    private BeerDTO toDTO(int record) {
+        return new BeerDTO(
+                buffer.getLong(record + ID_OFFSET),
+                poolString(buffer.getInt(record + NAME_OFFSET)),
+                poolString(buffer.getInt(record + BRAND_OFFSET)),
+                buffer.getInt(record + MAX_OFFSET),
+                buffer.getInt(record + QUANTITY_OFFSET),
+                BEER_TYPES[buffer.get(record + TYPE_OFFSET)]
+        );
+    }
+
+    private String poolString(int poolOffset) {
+        int position = poolStart + poolOffset;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean poolEntryEquals(int poolOffset, byte[] expected) {
+        int position = poolStart + poolOffset;
+        if (buffer.getInt(position) != expected.length) {
+            return false;
+        }
+        int start = position + Integer.BYTES;
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(String name) {
+        int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,87 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import me.dio.rodolfohok.beerstock.routing.PrimaryReads;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps catalog responses as ready-to-send JSON bytes, both plain and gzipped, tagged with the
+ * {@link CatalogVersion} they were rendered at. While the catalog is unchanged a listing is served
+ * from the cached bytes without touching the database, the mapper or Jackson.
+ * <p>
+ * The version is read before the body is produced, and the body must come from a read that starts
+ * after that: a read already in flight, such as a coalesced one, may predate a write the version
+ * counts. A response is only cached when the version has not moved while it was rendered; one that
+ * raced with a change is still returned to its caller, just not kept. Bodies are read from the
+ * primary, since a lagging replica would otherwise be cached under a version it has not caught up to.
+ */
+@Component
+public class CatalogResponseCache {
+
+    static final int MAX_ENTRIES = 256;
+
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CatalogResponseCache(CatalogVersion catalogVersion, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.hits = meterRegistry.counter("beerstock.catalog.response.cache", "result", "hit");
+        this.misses = meterRegistry.counter("beerstock.catalog.response.cache", "result", "miss");
+    }
+
+    public CachedResponse get(String key, Supplier<?> body) {
+        long version = catalogVersion.current();
+        CachedResponse cached = responses.get(key);
+        if (cached != null && cached.getVersion() == version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        CachedResponse rendered = render(version, PrimaryReads.call(body));
+        if (catalogVersion.current() != version) {
+            return rendered;
+        }
+        if (responses.size() >= MAX_ENTRIES && !responses.containsKey(key)) {
+            // page sizes are client-chosen, so keys are bounded by dropping everything at once
+            responses.clear();
+        }
+        return responses.merge(key, rendered,
+                (current, candidate) -> current.getVersion() >= candidate.getVersion() ? current : candidate);
+    }
+
+    private CachedResponse render(long version, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(json);
+            }
+            return new CachedResponse(version, json, gzipped.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Value
+    public static class CachedResponse {
+
+        long version;
+        byte[] json;
+        byte[] gzipped;
+    }
+}
@@ -0,0 +1,48 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves reads from an off-heap {@link BeerCatalogSnapshot} on read-heavy nodes. The snapshot is
+ * rebuilt from the repository on a fixed interval and swapped atomically, so readers always see a
+ * complete catalog, at most one refresh interval old. The catalog version only moves when a
+ * refresh actually changed the snapshot, so an idle catalog keeps its cached responses.
+ */
+@Component
+public class CatalogSnapshotHolder {
+
+    private final BeerRepository beerRepository;
+    private final CatalogVersion catalogVersion;
+    private final boolean enabled;
+    private final AtomicReference<BeerCatalogSnapshot> snapshot = new AtomicReference<>();
+
+    public CatalogSnapshotHolder(BeerRepository beerRepository, CatalogVersion catalogVersion,
+                                 @Value("${beerstock.catalog.snapshot.enabled:false}") boolean enabled) {
+        this.beerRepository = beerRepository;
+        this.catalogVersion = catalogVersion;
+        this.enabled = enabled;
+    }
+
+    public Optional<BeerCatalogSnapshot> current() {
+        return Optional.ofNullable(snapshot.get());
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${beerstock.catalog.snapshot.refresh-millis:5000}")
+    public void refresh() {
+        if (enabled) {
+            BeerCatalogSnapshot refreshed = BeerCatalogSnapshot.of(beerRepository.findAll(Sort.by("id")));
+            BeerCatalogSnapshot previous = snapshot.getAndSet(refreshed);
+            if (!refreshed.hasSameContent(previous)) {
+                // reads are served from the snapshot, so responses rendered from the previous one are stale
+                catalogVersion.bump();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts changes to the beer catalog. Every write path bumps it once its transaction has
+ * committed, so anything derived from the catalog is current as long as the version it was built
+ * at is still the current one.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+}
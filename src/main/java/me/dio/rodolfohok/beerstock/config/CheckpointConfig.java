@@ -0,0 +1,28 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import me.dio.rodolfohok.beerstock.catalog.BeerCatalogCheckpoint;
+import me.dio.rodolfohok.beerstock.catalog.CatalogVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.checkpoint.enabled", havingValue = "true")
+public class CheckpointConfig {
+
+    @Bean
+    public BeerCatalogCheckpoint beerCatalogCheckpoint(JdbcTemplate jdbcTemplate,
+                                                       TransactionTemplate transactionTemplate,
+                                                       @Value("${beerstock.checkpoint.file}") Path file,
+                                                       @Value("${beerstock.checkpoint.max-compact-millis:2000}") long maxCompactMillis,
+                                                       CatalogVersion catalogVersion) {
+        return new BeerCatalogCheckpoint(jdbcTemplate, transactionTemplate, file, Duration.ofMillis(maxCompactMillis),
+                catalogVersion);
+    }
+}
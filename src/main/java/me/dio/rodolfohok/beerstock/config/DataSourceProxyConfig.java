@@ -0,0 +1,29 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import me.dio.rodolfohok.beerstock.tracing.DataSourceProxyPostProcessor;
+import me.dio.rodolfohok.beerstock.tracing.SlowQueryLog;
+import me.dio.rodolfohok.beerstock.tracing.StatementCounter;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static DataSourceProxyPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new DataSourceProxyPostProcessor(listeners);
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${beerstock.tracing.slow-query.threshold-millis:200}") long thresholdMillis) {
+        return new SlowQueryLog(thresholdMillis);
+    }
+}
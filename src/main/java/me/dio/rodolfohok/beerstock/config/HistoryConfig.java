@@ -0,0 +1,19 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class HistoryConfig {
+
+    @Bean
+    public StockHistory stockHistory(@Value("${beerstock.history.raw-retention-hours:24}") long rawRetentionHours,
+                                     @Value("${beerstock.history.minute-retention-days:30}") long minuteRetentionDays) {
+        return new StockHistory(Clock.systemUTC(), Duration.ofHours(rawRetentionHours), Duration.ofDays(minuteRetentionDays));
+    }
+}
@@ -0,0 +1,74 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.limiter.AdaptiveConcurrencyLimiter;
+import me.dio.rodolfohok.beerstock.limiter.LoadSheddingInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private static final String BEER_API_PATTERN = "/api/v1/beers/**";
+
+    @Value("${beerstock.limiter.endpoint.tokens-per-second:2000}")
+    private double endpointTokensPerSecond;
+
+    @Value("${beerstock.limiter.endpoint.burst:4000}")
+    private double endpointBurst;
+
+    @Value("${beerstock.limiter.client.tokens-per-second:200}")
+    private double clientTokensPerSecond;
+
+    @Value("${beerstock.limiter.client.burst:400}")
+    private double clientBurst;
+
+    @Value("${beerstock.limiter.client.max-tracked:10000}")
+    private int maxTrackedClients;
+
+    @Value("${beerstock.limiter.client.trust-client-id-header:false}")
+    private boolean trustClientIdHeader;
+
+    @Value("${beerstock.limiter.concurrency.initial-limit:20}")
+    private int initialConcurrencyLimit;
+
+    @Value("${beerstock.limiter.concurrency.min-limit:4}")
+    private int minConcurrencyLimit;
+
+    @Value("${beerstock.limiter.concurrency.max-limit:200}")
+    private int maxConcurrencyLimit;
+
+    @Value("${beerstock.limiter.concurrency.baseline-window-seconds:10}")
+    private long baselineWindowSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    public LoadSheddingConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(initialConcurrencyLimit, minConcurrencyLimit, maxConcurrencyLimit,
+                TimeUnit.SECONDS.toNanos(baselineWindowSeconds), System::nanoTime);
+    }
+
+    @Bean
+    public LoadSheddingInterceptor loadSheddingInterceptor(AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter) {
+        return new LoadSheddingInterceptor(endpointTokensPerSecond, endpointBurst, clientTokensPerSecond, clientBurst,
+                maxTrackedClients, trustClientIdHeader, adaptiveConcurrencyLimiter, meterRegistry, System::nanoTime);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loadSheddingInterceptor(adaptiveConcurrencyLimiter()))
+                .addPathPatterns(BEER_API_PATTERN);
+    }
+}
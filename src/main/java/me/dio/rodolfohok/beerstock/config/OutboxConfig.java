@@ -0,0 +1,41 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.rodolfohok.beerstock.outbox.NdjsonFileStockOutboxSink;
+import me.dio.rodolfohok.beerstock.outbox.StockOutboxRelay;
+import me.dio.rodolfohok.beerstock.outbox.StockOutboxSink;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public StockOutboxSink stockOutboxSink(@Value("${beerstock.outbox.sink.file:stock-events.ndjson}") Path file,
+                                           ObjectMapper objectMapper) {
+        return new NdjsonFileStockOutboxSink(file, objectMapper);
+    }
+
+    @Bean
+    public StockOutboxRelay stockOutboxRelay(StockOutboxEventRepository stockOutboxEventRepository,
+                                             StockOutboxSink stockOutboxSink,
+                                             TransactionTemplate transactionTemplate,
+                                             BeerShards beerShards,
+                                             @Value("${beerstock.outbox.relay.batch-size:500}") int batchSize,
+                                             @Value("${beerstock.outbox.retention-minutes:60}") long retentionMinutes,
+                                             @Value("${beerstock.outbox.relay.settle-millis:1000}") long settleMillis) {
+        return new StockOutboxRelay(stockOutboxEventRepository, stockOutboxSink, transactionTemplate, beerShards,
+                batchSize, Duration.ofMinutes(retentionMinutes), Duration.ofMillis(settleMillis));
+    }
+}
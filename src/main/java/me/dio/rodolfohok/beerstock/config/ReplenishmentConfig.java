@@ -0,0 +1,29 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import me.dio.rodolfohok.beerstock.replenishment.ReplenishmentPlanner;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ReplenishmentConfig {
+
+    @Bean
+    public ReplenishmentPlanner replenishmentPlanner(BeerRepository beerRepository,
+                                                     StockHistory stockHistory,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${beerstock.replenishment.consumption-window-days:7}") long windowDays,
+                                                     @Value("${beerstock.replenishment.horizon-days:7}") int horizonDays,
+                                                     @Value("${beerstock.replenishment.chunk-size:10000}") int chunkSize,
+                                                     @Value("${beerstock.replenishment.parallelism:0}") int parallelism) {
+        return new ReplenishmentPlanner(beerRepository, stockHistory, Clock.systemUTC(), Duration.ofDays(windowDays),
+                horizonDays, chunkSize, parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                meterRegistry);
+    }
+}
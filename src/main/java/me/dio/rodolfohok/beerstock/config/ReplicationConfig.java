@@ -0,0 +1,46 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.catalog.CatalogVersion;
+import me.dio.rodolfohok.beerstock.replication.ReplicationFollower;
+import me.dio.rodolfohok.beerstock.replication.ReplicationLog;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class ReplicationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "beerstock.replication.role", havingValue = "primary")
+    public ReplicationLog replicationLog(BeerRepository beerRepository,
+                                        StockOutboxEventRepository stockOutboxEventRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${beerstock.replication.settle-millis:1000}") long settleMillis) {
+        return new ReplicationLog(beerRepository, stockOutboxEventRepository, transactionTemplate,
+                Duration.ofMillis(settleMillis));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "beerstock.replication.role", havingValue = "follower")
+    public ReplicationFollower replicationFollower(RestTemplateBuilder restTemplateBuilder,
+                                                   @Value("${beerstock.replication.primary-url}") String primaryUrl,
+                                                   JdbcTemplate jdbcTemplate,
+                                                   TransactionTemplate transactionTemplate,
+                                                   CatalogVersion catalogVersion,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${beerstock.replication.batch-size:1000}") int batchSize) {
+        return new ReplicationFollower(restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(10))
+                .build(), primaryUrl, jdbcTemplate, transactionTemplate, catalogVersion, meterRegistry, batchSize);
+    }
+}
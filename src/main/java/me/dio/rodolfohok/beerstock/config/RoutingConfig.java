@@ -0,0 +1,76 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.routing.H2ReplicaStandIn;
+import me.dio.rodolfohok.beerstock.routing.ReadWriteRoutingDataSource;
+import me.dio.rodolfohok.beerstock.routing.ReadYourWrites;
+import me.dio.rodolfohok.beerstock.routing.ReadYourWritesFilter;
+import me.dio.rodolfohok.beerstock.routing.ReplicaLagMonitor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.routing.enabled", havingValue = "true")
+public class RoutingConfig {
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(DataSourceProperties properties,
+                                        @Value("${beerstock.routing.replica.url}") String url) {
+        return DataSourceBuilder.create()
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${beerstock.routing.read-your-writes-millis:5000}") long windowMillis) {
+        return new ReadYourWrites(Duration.ofMillis(windowMillis));
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${beerstock.routing.max-replica-lag-millis:2000}") long maxLagMillis,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, replica, Duration.ofMillis(maxLagMillis), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWrites readYourWrites,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        return new ReadWriteRoutingDataSource(primary, replica, readYourWrites, replicaLagMonitor, meterRegistry).lazy();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWrites));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "beerstock.routing.stand-in.enabled", havingValue = "true")
+    public H2ReplicaStandIn h2ReplicaStandIn(@Qualifier("primaryDataSource") DataSource primary,
+                                             @Qualifier("replicaDataSource") DataSource replica) {
+        return new H2ReplicaStandIn(primary, replica);
+    }
+}
@@ -0,0 +1,89 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
+import me.dio.rodolfohok.beerstock.sharding.ShardRoutingDataSource;
+import me.dio.rodolfohok.beerstock.sharding.ShardSchemaInitializer;
+import me.dio.rodolfohok.beerstock.sharding.ShardedRepositoryPostProcessor;
+import me.dio.rodolfohok.beerstock.tracing.DataSourceProxyPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Read-write routing, checkpoints and replication each treat the beer table as one database,
+     * and min/max lookups such as the replication log's cannot be gathered by summing shards.
+     */
+    public ShardingConfig(@Value("${beerstock.routing.enabled:false}") boolean routingEnabled,
+                          @Value("${beerstock.checkpoint.enabled:false}") boolean checkpointEnabled,
+                          @Value("${beerstock.replication.role:none}") String replicationRole) {
+        List<String> conflicts = new ArrayList<>();
+        if (routingEnabled) {
+            conflicts.add("beerstock.routing.enabled");
+        }
+        if (checkpointEnabled) {
+            conflicts.add("beerstock.checkpoint.enabled");
+        }
+        if (!"none".equals(replicationRole)) {
+            conflicts.add("beerstock.replication.role=" + replicationRole);
+        }
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("beerstock.sharding.enabled cannot be combined with " + String.join(", ", conflicts));
+        }
+    }
+
+    @Bean
+    public static ShardedRepositoryPostProcessor shardedRepositoryPostProcessor(ObjectProvider<BeerShards> beerShards) {
+        return new ShardedRepositoryPostProcessor(beerShards);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         DataSourceProxyPostProcessor dataSourceProxyPostProcessor,
+                                                         BeerShards beerShards,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${beerstock.sharding.url-pattern}") String urlPattern) {
+        // shard 0 is the configured datasource, it also keeps the tables that are not sharded
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(properties.initializeDataSourceBuilder().build());
+        for (int shard = 1; shard < beerShards.count(); shard++) {
+            shards.add(DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(String.format(urlPattern, shard))
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build());
+        }
+        List<DataSource> observed = new ArrayList<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            observed.add((DataSource) dataSourceProxyPostProcessor.postProcessAfterInitialization(shards.get(shard), "shard" + shard));
+        }
+        return new ShardRoutingDataSource(observed, beerShards, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return shardRoutingDataSource.lazy();
+    }
+
+    @Bean(initMethod = "initialize")
+    @DependsOn("entityManagerFactory")
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardSchemaInitializer(shardRoutingDataSource.getShards());
+    }
+}
@@ -0,0 +1,67 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final String PEAK_RSS_FIELD = "VmHWM:";
+
+    /**
+     * Keeps the entity manager factory eager when lazy initialization is on, so the Hibernate
+     * metamodel is built during startup (in the background when repositories are deferred)
+     * rather than on the first request.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter entityManagerFactoryLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class);
+    }
+
+    /**
+     * Reports startup time and peak RSS once the application is ready and then shuts it down.
+     * Used by the startup benchmark and to record the AppCDS archive during a training run.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "beerstock.startup.exit-on-ready", havingValue = "true")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReadyListener() {
+        return event -> {
+            log.info("Startup finished in {} ms, peak RSS {} kB",
+                    ManagementFactory.getRuntimeMXBean().getUptime(),
+                    peakRssKilobytes().map(String::valueOf).orElse("n/a"));
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+
+    private static Optional<Long> peakRssKilobytes() {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return Optional.empty();
+        }
+        try {
+            return Files.readAllLines(PROC_STATUS).stream()
+                    .filter(line -> line.startsWith(PEAK_RSS_FIELD))
+                    .map(line -> line.substring(PEAK_RSS_FIELD.length()).replace("kB", "").trim())
+                    .map(Long::valueOf)
+                    .findFirst();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.tracing.StatementCountInterceptor;
+import me.dio.rodolfohok.beerstock.tracing.StatementCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.jdbc.statement-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class StatementCountConfig implements WebMvcConfigurer {
+
+    private static final String API_PATTERN = "/api/v1/**";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountConfig(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementCountInterceptor(statementCounter, meterRegistry))
+                .addPathPatterns(API_PATTERN);
+    }
+}
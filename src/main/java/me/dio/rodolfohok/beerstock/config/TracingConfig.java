@@ -0,0 +1,81 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import me.dio.rodolfohok.beerstock.tracing.LoggingSpanExporter;
+import me.dio.rodolfohok.beerstock.tracing.SpanExporter;
+import me.dio.rodolfohok.beerstock.tracing.Tracer;
+import me.dio.rodolfohok.beerstock.tracing.TracingAspect;
+import me.dio.rodolfohok.beerstock.tracing.TracingFilter;
+import me.dio.rodolfohok.beerstock.tracing.TracingMappingJackson2HttpMessageConverter;
+import me.dio.rodolfohok.beerstock.tracing.TracingQueryListener;
+import me.dio.rodolfohok.beerstock.tracing.TracingValidator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.tracing.enabled", havingValue = "true")
+public class TracingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Tracer> tracer;
+    private final ObjectProvider<javax.validation.Validator> beanValidator;
+
+    public TracingConfig(ObjectProvider<Tracer> tracer, ObjectProvider<javax.validation.Validator> beanValidator) {
+        this.tracer = tracer;
+        this.beanValidator = beanValidator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpanExporter spanExporter() {
+        return new LoggingSpanExporter();
+    }
+
+    @Bean
+    public Tracer tracer(SpanExporter spanExporter) {
+        return new Tracer(spanExporter);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    public TracingQueryListener tracingQueryListener(Tracer tracer) {
+        return new TracingQueryListener(tracer);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            HttpMessageConverter<?> converter = converters.get(i);
+            if (converter.getClass() == MappingJackson2HttpMessageConverter.class) {
+                converters.set(i, new TracingMappingJackson2HttpMessageConverter(
+                        ((MappingJackson2HttpMessageConverter) converter).getObjectMapper(), tracer.getObject()));
+            }
+        }
+    }
+
+    @Override
+    public Validator getValidator() {
+        return new TracingValidator(new SpringValidatorAdapter(beanValidator.getObject()), tracer.getObject());
+    }
+}
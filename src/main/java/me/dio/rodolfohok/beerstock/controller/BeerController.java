@@ -1,25 +1,34 @@
 package me.dio.rodolfohok.beerstock.controller;
 
 import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.catalog.CatalogResponseCache;
 import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerIdsDTO;
 import me.dio.rodolfohok.beerstock.dto.QuantityDTO;
 import me.dio.rodolfohok.beerstock.exception.BeerAlreadyRegisteredException;
 import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
 import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
 import me.dio.rodolfohok.beerstock.service.BeerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/beers")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
+  private static final int DEFAULT_PAGE_SIZE = 20;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final String GZIP = "gzip";
+
   private final BeerService beerService;
+  private final CatalogResponseCache catalogResponseCache;
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
@@ -33,8 +42,61 @@ public class BeerController implements BeerControllerDocs {
   }
 
   @GetMapping
-  public List<BeerDTO> listBeers() {
-    return beerService.listAll();
+  public ResponseEntity<byte[]> listBeers(@RequestParam(required = false) Integer page,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    CatalogResponseCache.CachedResponse response;
+    if (page == null && size == null) {
+      response = catalogResponseCache.get("all", beerService::listAllFresh);
+    } else {
+      // clamped the way Spring Data clamps pageable parameters
+      int pageNumber = Math.max(page == null ? 0 : page, 0);
+      int pageSize = Math.min(Math.max(size == null ? DEFAULT_PAGE_SIZE : size, 1), MAX_PAGE_SIZE);
+      response = catalogResponseCache.get("page:" + pageNumber + ":" + pageSize,
+          () -> beerService.listPage(pageNumber, pageSize));
+    }
+    boolean gzip = acceptsGzip(acceptEncoding);
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(response.getGzipped());
+    }
+    return builder.body(response.getJson());
+  }
+
+  // gzip is acceptable when listed with a non-zero q-value, or when it is not listed but "*" is
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Double gzipQuality = null;
+    Double wildcardQuality = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      if (name.equalsIgnoreCase(GZIP)) {
+        gzipQuality = quality(parts);
+      } else if (name.equals("*")) {
+        wildcardQuality = quality(parts);
+      }
+    }
+    Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+    return quality != null && quality > 0;
+  }
+
+  private static double quality(String[] codingParts) {
+    for (int i = 1; i < codingParts.length; i++) {
+      String parameter = codingParts[i].trim();
+      if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
   }
 
   @DeleteMapping("/{id}")
@@ -43,6 +105,17 @@ public class BeerController implements BeerControllerDocs {
     beerService.deleteById(id);
   }
 
+  @DeleteMapping
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void deleteAllById(@RequestBody @Valid BeerIdsDTO beerIdsDTO) {
+    beerService.deleteAllById(beerIdsDTO.getIds());
+  }
+
+  @PostMapping("/{id}/restore")
+  public BeerDTO restore(@PathVariable Long id) throws BeerNotFoundException {
+    return beerService.restore(id);
+  }
+
   @PatchMapping("/{id}/increment")
   public BeerDTO increment(@PathVariable Long id, @Valid @RequestBody QuantityDTO quantityDTO)
       throws BeerNotFoundException, BeerStockExceededException {
@@ -5,12 +5,12 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerIdsDTO;
 import me.dio.rodolfohok.beerstock.exception.BeerAlreadyRegisteredException;
 import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 
-import java.util.List;
-
 @Api("Manages beer stock")
 public interface BeerControllerDocs {
 
@@ -30,9 +30,10 @@ public interface BeerControllerDocs {
 
     @ApiOperation(value = "Returns a list of all beers registered in the system")
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 200, message = "List of all beers registered in the system, or one page of it "
+                    + "when page or size is given", response = BeerDTO.class, responseContainer = "List"),
     })
-    List<BeerDTO> listBeers();
+    ResponseEntity<byte[]> listBeers(Integer page, Integer size, String acceptEncoding);
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
@@ -40,4 +41,18 @@ public interface BeerControllerDocs {
             @ApiResponse(code = 404, message = "Beer with given id not found.")
     })
     void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Delete all beers found by the given ids, skipping unknown ones")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success beers deleted in the system"),
+            @ApiResponse(code = 400, message = "No ids or more than 1000 ids given.")
+    })
+    void deleteAllById(BeerIdsDTO beerIdsDTO);
+
+    @ApiOperation(value = "Restore a deleted beer that has not been purged yet")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success beer restored in the system"),
+            @ApiResponse(code = 404, message = "No deleted beer with given id.")
+    })
+    BeerDTO restore(@PathVariable Long id) throws BeerNotFoundException;
 }
@@ -0,0 +1,57 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupRequestDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupResultDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/beers/lookup")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerLookupController implements BeerLookupControllerDocs {
+
+  private final BeerService beerService;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Writes one result per requested name, then per requested id, as a JSON array. Results are
+   * written while later chunks are still being read, so the response is never held in memory.
+   */
+  @PostMapping
+  public void lookup(@RequestBody @Valid BeerLookupRequestDTO beerLookupRequestDTO, HttpServletResponse response)
+      throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+      generator.writeStartArray();
+      beerService.lookup(orEmpty(beerLookupRequestDTO.getNames()), orEmpty(beerLookupRequestDTO.getIds()),
+          result -> write(generator, result));
+      generator.writeEndArray();
+    }
+  }
+
+  private static void write(JsonGenerator generator, BeerLookupResultDTO result) {
+    try {
+      generator.writeObject(result);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> List<T> orEmpty(List<T> keys) {
+    return keys == null ? List.of() : keys;
+  }
+}
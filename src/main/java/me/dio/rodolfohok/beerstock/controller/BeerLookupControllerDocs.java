@@ -0,0 +1,21 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupRequestDTO;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Api("Looks up beers in bulk")
+public interface BeerLookupControllerDocs {
+
+    @ApiOperation(value = "Returns one result per requested name, then per requested id, found or not")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success lookup streamed as a JSON array"),
+            @ApiResponse(code = 400, message = "More than 1000 names or ids, or an empty or null key.")
+    })
+    void lookup(BeerLookupRequestDTO beerLookupRequestDTO, HttpServletResponse response) throws IOException;
+}
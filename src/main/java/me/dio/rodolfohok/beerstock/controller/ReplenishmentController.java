@@ -0,0 +1,22 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentPlanDTO;
+import me.dio.rodolfohok.beerstock.replenishment.ReplenishmentPlanner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/beers/replenishment")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReplenishmentController implements ReplenishmentControllerDocs {
+
+  private final ReplenishmentPlanner replenishmentPlanner;
+
+  @GetMapping
+  public ReplenishmentPlanDTO replenishment() {
+    return replenishmentPlanner.current();
+  }
+}
@@ -0,0 +1,17 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentPlanDTO;
+
+@Api("Plans beer stock replenishment")
+public interface ReplenishmentControllerDocs {
+
+    @ApiOperation(value = "Returns the latest replenishment plan, grouped by brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Reorder suggestions for beers out of stock or projected to run out within the horizon")
+    })
+    ReplenishmentPlanDTO replenishment();
+}
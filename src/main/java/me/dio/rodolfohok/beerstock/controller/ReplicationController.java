@@ -0,0 +1,40 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.exception.ReplicationGapException;
+import me.dio.rodolfohok.beerstock.replication.ReplicationCodec;
+import me.dio.rodolfohok.beerstock.replication.ReplicationDeltas;
+import me.dio.rodolfohok.beerstock.replication.ReplicationLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/internal/replication")
+@ConditionalOnProperty(name = "beerstock.replication.role", havingValue = "primary")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReplicationController {
+
+  private final ReplicationLog replicationLog;
+
+  @GetMapping("/snapshot")
+  public void snapshot(HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    ReplicationCodec.writeSnapshot(replicationLog.snapshot(), response.getOutputStream());
+  }
+
+  @GetMapping("/deltas")
+  public void deltas(@RequestParam long after, @RequestParam(defaultValue = "1000") int limit,
+                     HttpServletResponse response) throws IOException, ReplicationGapException {
+    ReplicationDeltas deltas = replicationLog.deltas(after, Math.min(Math.max(limit, 1), 10_000));
+    response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    ReplicationCodec.writeDeltas(deltas, response.getOutputStream());
+  }
+}
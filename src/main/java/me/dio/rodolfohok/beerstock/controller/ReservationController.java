@@ -0,0 +1,48 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationRequestDTO;
+import me.dio.rodolfohok.beerstock.dto.StockAvailabilityDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.exception.ReservationNotFoundException;
+import me.dio.rodolfohok.beerstock.service.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/beers/{id}/reservations")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReservationController implements ReservationControllerDocs {
+
+  private final ReservationService reservationService;
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.CREATED)
+  public ReservationDTO reserve(@PathVariable Long id, @RequestBody @Valid ReservationRequestDTO reservationRequestDTO)
+      throws BeerNotFoundException, BeerStockExceededException {
+    return reservationService.reserve(id, reservationRequestDTO.getQuantity(), reservationRequestDTO.getTtlSeconds());
+  }
+
+  @GetMapping
+  public StockAvailabilityDTO availability(@PathVariable Long id) throws BeerNotFoundException {
+    return reservationService.availability(id);
+  }
+
+  @PostMapping("/{reservationId}/commit")
+  public BeerDTO commit(@PathVariable Long id, @PathVariable String reservationId)
+      throws ReservationNotFoundException, BeerNotFoundException, BeerStockExceededException {
+    return reservationService.commit(id, reservationId);
+  }
+
+  @DeleteMapping("/{reservationId}")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void release(@PathVariable Long id, @PathVariable String reservationId) throws ReservationNotFoundException {
+    reservationService.release(id, reservationId);
+  }
+}
@@ -0,0 +1,50 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationRequestDTO;
+import me.dio.rodolfohok.beerstock.dto.StockAvailabilityDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.exception.ReservationNotFoundException;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@Api("Manages stock reservations")
+public interface ReservationControllerDocs {
+
+    @ApiOperation(value = "Hold units of a beer until the reservation is committed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success reservation created"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value or not enough stock available to promise."),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    ReservationDTO reserve(@PathVariable Long id, ReservationRequestDTO reservationRequestDTO)
+            throws BeerNotFoundException, BeerStockExceededException;
+
+    @ApiOperation(value = "Returns the stock, held units and available-to-promise of a beer")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success availability found"),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    StockAvailabilityDTO availability(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Commit a reservation, decrementing the stock it held")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Success reservation committed"),
+            @ApiResponse(code = 400, message = "Not enough stock to decrement; the reservation is kept."),
+            @ApiResponse(code = 404, message = "Beer or reservation not found.")
+    })
+    BeerDTO commit(@PathVariable Long id, @PathVariable String reservationId)
+            throws ReservationNotFoundException, BeerNotFoundException, BeerStockExceededException;
+
+    @ApiOperation(value = "Release a reservation without touching the stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success reservation released"),
+            @ApiResponse(code = 404, message = "Reservation not found.")
+    })
+    void release(@PathVariable Long id, @PathVariable String reservationId) throws ReservationNotFoundException;
+}
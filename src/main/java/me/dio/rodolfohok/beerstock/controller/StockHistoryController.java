@@ -0,0 +1,34 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.dto.StockHistoryDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.InvalidHistoryRangeException;
+import me.dio.rodolfohok.beerstock.service.StockHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/v1/beers/{id}/history")
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockHistoryController implements StockHistoryControllerDocs {
+
+  private final StockHistoryService stockHistoryService;
+
+  @GetMapping
+  public StockHistoryDTO history(@PathVariable Long id,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                 @RequestParam(required = false) Duration step)
+      throws BeerNotFoundException, InvalidHistoryRangeException {
+    return stockHistoryService.history(id, from, to, step);
+  }
+}
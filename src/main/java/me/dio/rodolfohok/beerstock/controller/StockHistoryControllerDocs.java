@@ -0,0 +1,26 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import me.dio.rodolfohok.beerstock.dto.StockHistoryDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.InvalidHistoryRangeException;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Api("Reports beer stock history")
+public interface StockHistoryControllerDocs {
+
+    @ApiOperation(value = "Returns the stock of a beer over time, by default for the last 24 hours in one-minute steps")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Min, max and last stock per step"),
+            @ApiResponse(code = 400, message = "from not before to, a non-positive step or more than 10000 steps."),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    StockHistoryDTO history(@PathVariable Long id, Instant from, Instant to, Duration step)
+            throws BeerNotFoundException, InvalidHistoryRangeException;
+}
@@ -0,0 +1,23 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BeerLookupResultDTO {
+
+    private String name;
+
+    private Long id;
+
+    private boolean found;
+
+    private BeerDTO beer;
+}
@@ -0,0 +1,21 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrandReplenishmentDTO {
+
+    private String brand;
+
+    private long reorderQuantity;
+
+    private List<ReplenishmentSuggestionDTO> suggestions;
+}
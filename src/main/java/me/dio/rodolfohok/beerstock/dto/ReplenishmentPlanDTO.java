@@ -0,0 +1,27 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentPlanDTO {
+
+    private Instant plannedAt;
+
+    private Duration consumptionWindow;
+
+    private int horizonDays;
+
+    private long beersPlanned;
+
+    private List<BrandReplenishmentDTO> brands;
+}
@@ -0,0 +1,30 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReplenishmentSuggestionDTO {
+
+    private Long beerId;
+
+    private String name;
+
+    private int quantity;
+
+    private int max;
+
+    private double consumptionPerDay;
+
+    // absent while nothing is consumed
+    private Double daysUntilEmpty;
+
+    private int reorderQuantity;
+}
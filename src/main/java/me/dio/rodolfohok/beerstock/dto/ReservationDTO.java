@@ -0,0 +1,25 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+
+    private String id;
+
+    private Long beerId;
+
+    private Integer quantity;
+
+    private Instant expiresAt;
+
+    private Integer availableToPromise;
+}
@@ -0,0 +1,27 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequestDTO {
+
+    @NotNull
+    @Min(1)
+    @Max(100)
+    private Integer quantity;
+
+    @NotNull
+    @Min(1)
+    @Max(3600)
+    private Long ttlSeconds;
+}
@@ -0,0 +1,21 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailabilityDTO {
+
+    private Long beerId;
+
+    private Integer quantity;
+
+    private Integer held;
+
+    private Integer availableToPromise;
+}
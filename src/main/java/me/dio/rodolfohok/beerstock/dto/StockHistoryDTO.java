@@ -0,0 +1,30 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.dio.rodolfohok.beerstock.history.Resolution;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoryDTO {
+
+    private Long beerId;
+
+    private Instant from;
+
+    private Instant to;
+
+    private Duration step;
+
+    private Resolution resolution;
+
+    private List<StockHistoryPointDTO> points;
+}
@@ -0,0 +1,23 @@
+package me.dio.rodolfohok.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoryPointDTO {
+
+    private Instant timestamp;
+
+    private Integer min;
+
+    private Integer max;
+
+    private Integer last;
+}
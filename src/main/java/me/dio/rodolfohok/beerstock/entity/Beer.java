@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import me.dio.rodolfohok.beerstock.enums.BeerType;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -12,11 +13,13 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import java.time.Instant;
 
 @Data
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
+@Where(clause = "deleted_at is null")
 public class Beer {
 
     @Id
@@ -38,4 +41,20 @@ public class Beer {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
+
+    /**
+     * When the beer was soft deleted, {@code null} while it is live. Tombstoned rows are invisible
+     * to entity queries until they are restored or purged.
+     */
+    private Instant deletedAt;
+
+    /**
+     * Identifies the delete call that tombstoned the beer, so that only that call records its
+     * {@code DELETED} event even when overlapping deletes run at the same instant.
+     */
+    private String deletionId;
+
+    public Beer(Long id, String name, String brand, int max, int quantity, BeerType type) {
+        this(id, name, brand, max, quantity, type, null, null);
+    }
 }
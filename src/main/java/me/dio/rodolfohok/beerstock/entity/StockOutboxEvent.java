@@ -0,0 +1,61 @@
+package me.dio.rodolfohok.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_stock_outbox_event_published_at", columnList = "publishedAt"))
+public class StockOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockEventType type;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String brand;
+
+    @Column(nullable = false)
+    private int max;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BeerType beerType;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    private Instant publishedAt;
+}
@@ -0,0 +1,16 @@
+package me.dio.rodolfohok.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockEventType {
+
+    CREATED("Created"),
+    DELETED("Deleted"),
+    INCREMENTED("Incremented"),
+    DECREMENTED("Decremented");
+
+    private final String description;
+}
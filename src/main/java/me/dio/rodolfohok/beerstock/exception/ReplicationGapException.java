@@ -0,0 +1,13 @@
+package me.dio.rodolfohok.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ReplicationGapException extends Exception {
+
+    public ReplicationGapException(long afterSequence, long firstRetainedSequence) {
+        super(String.format("Stock deltas after sequence %s were purged, the oldest retained one is %s.",
+                afterSequence, firstRetainedSequence));
+    }
+}
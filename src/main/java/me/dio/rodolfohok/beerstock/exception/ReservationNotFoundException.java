@@ -0,0 +1,12 @@
+package me.dio.rodolfohok.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReservationNotFoundException extends Exception {
+
+    public ReservationNotFoundException(Long beerId, String reservationId) {
+        super(String.format("Reservation %s for beer with id %s not found in the system.", reservationId, beerId));
+    }
+}
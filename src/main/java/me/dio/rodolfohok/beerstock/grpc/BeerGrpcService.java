@@ -0,0 +1,147 @@
+package me.dio.rodolfohok.beerstock.grpc;
+
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.stub.StreamObserver;
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerMessage;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerStockGrpc;
+import me.dio.rodolfohok.beerstock.grpc.proto.FindByNameRequest;
+import me.dio.rodolfohok.beerstock.grpc.proto.ListBeersRequest;
+import me.dio.rodolfohok.beerstock.grpc.proto.QuantityRequest;
+import me.dio.rodolfohok.beerstock.grpc.proto.StockAdjustment;
+import me.dio.rodolfohok.beerstock.grpc.proto.StockAdjustmentResult;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * gRPC counterpart of {@code BeerController} for internal service-to-service calls.
+ * Business errors are mapped to gRPC status codes the same way the REST API maps them to HTTP ones,
+ * and quantities are held to the bounds {@code QuantityDTO} puts on the REST ones.
+ */
+@GrpcService
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerGrpcService extends BeerStockGrpc.BeerStockImplBase {
+
+    private static final int MAX_QUANTITY = 100;
+
+    private final BeerService beerService;
+
+    @Override
+    public void findByName(FindByNameRequest request, StreamObserver<BeerMessage> responseObserver) {
+        try {
+            BeerDTO foundBeer = beerService.findByName(request.getName());
+            responseObserver.onNext(BeerMessageMapper.toMessage(foundBeer));
+            responseObserver.onCompleted();
+        } catch (BeerNotFoundException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    @Override
+    public void listBeers(ListBeersRequest request, StreamObserver<BeerMessage> responseObserver) {
+        for (BeerDTO beerDTO : beerService.listAll()) {
+            responseObserver.onNext(BeerMessageMapper.toMessage(beerDTO));
+        }
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void increment(QuantityRequest request, StreamObserver<BeerMessage> responseObserver) {
+        if (!isValidQuantity(request.getQuantity())) {
+            responseObserver.onError(invalidQuantity(request.getQuantity()));
+            return;
+        }
+        try {
+            BeerDTO incrementedBeer = beerService.increment(request.getId(), request.getQuantity());
+            responseObserver.onNext(BeerMessageMapper.toMessage(incrementedBeer));
+            responseObserver.onCompleted();
+        } catch (BeerNotFoundException | BeerStockExceededException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    @Override
+    public void decrement(QuantityRequest request, StreamObserver<BeerMessage> responseObserver) {
+        if (!isValidQuantity(request.getQuantity())) {
+            responseObserver.onError(invalidQuantity(request.getQuantity()));
+            return;
+        }
+        try {
+            BeerDTO decrementedBeer = beerService.decrement(request.getId(), request.getQuantity());
+            responseObserver.onNext(BeerMessageMapper.toMessage(decrementedBeer));
+            responseObserver.onCompleted();
+        } catch (BeerNotFoundException | BeerStockExceededException e) {
+            responseObserver.onError(toStatusException(e));
+        }
+    }
+
+    /**
+     * Applies each adjustment as it arrives and answers it with its own result, so a rejected
+     * adjustment does not terminate the stream. That includes a delta out of bounds, which is
+     * answered with the {@code INVALID_ARGUMENT} description instead of being applied.
+     */
+    @Override
+    public StreamObserver<StockAdjustment> adjustStock(StreamObserver<StockAdjustmentResult> responseObserver) {
+        return new StreamObserver<>() {
+
+            @Override
+            public void onNext(StockAdjustment adjustment) {
+                responseObserver.onNext(adjust(adjustment));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                responseObserver.onError(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private StockAdjustmentResult adjust(StockAdjustment adjustment) {
+        StockAdjustmentResult.Builder result = StockAdjustmentResult.newBuilder()
+                .setId(adjustment.getId())
+                .setDelta(adjustment.getDelta());
+        // checked before the delta is negated, which overflows for Integer.MIN_VALUE
+        if (adjustment.getDelta() < -MAX_QUANTITY || adjustment.getDelta() > MAX_QUANTITY) {
+            return result.setAccepted(false)
+                    .setError(invalidQuantity(adjustment.getDelta()).getStatus().getDescription())
+                    .build();
+        }
+        try {
+            BeerDTO adjustedBeer = adjustment.getDelta() >= 0
+                    ? beerService.increment(adjustment.getId(), adjustment.getDelta())
+                    : beerService.decrement(adjustment.getId(), -adjustment.getDelta());
+            return result.setAccepted(true)
+                    .setBeer(BeerMessageMapper.toMessage(adjustedBeer))
+                    .build();
+        } catch (BeerNotFoundException | BeerStockExceededException e) {
+            return result.setAccepted(false)
+                    .setError(e.getMessage())
+                    .build();
+        }
+    }
+
+    private static boolean isValidQuantity(int quantity) {
+        return quantity >= 0 && quantity <= MAX_QUANTITY;
+    }
+
+    private static StatusException invalidQuantity(int quantity) {
+        return Status.INVALID_ARGUMENT
+                .withDescription(String.format("Quantity %d is out of bounds, at most %d units can be moved at once", quantity, MAX_QUANTITY))
+                .asException();
+    }
+
+    private StatusException toStatusException(Exception e) {
+        Status status = e instanceof BeerNotFoundException ? Status.NOT_FOUND : Status.FAILED_PRECONDITION;
+        return status.withDescription(e.getMessage()).asException();
+    }
+}
@@ -0,0 +1,36 @@
+package me.dio.rodolfohok.beerstock.grpc;
+
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerMessage;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerTypeMessage;
+
+public final class BeerMessageMapper {
+
+    private BeerMessageMapper() {
+    }
+
+    public static BeerMessage toMessage(BeerDTO beerDTO) {
+        BeerMessage.Builder builder = BeerMessage.newBuilder()
+                .setName(beerDTO.getName())
+                .setBrand(beerDTO.getBrand())
+                .setMax(beerDTO.getMax())
+                .setQuantity(beerDTO.getQuantity())
+                .setType(toMessage(beerDTO.getType()));
+        if (beerDTO.getId() != null) {
+            builder.setId(beerDTO.getId());
+        }
+        return builder.build();
+    }
+
+    public static BeerTypeMessage toMessage(BeerType beerType) {
+        return beerType == null ? BeerTypeMessage.BEER_TYPE_UNSPECIFIED : BeerTypeMessage.valueOf(beerType.name());
+    }
+
+    public static BeerType toBeerType(BeerTypeMessage beerTypeMessage) {
+        if (beerTypeMessage == BeerTypeMessage.BEER_TYPE_UNSPECIFIED || beerTypeMessage == BeerTypeMessage.UNRECOGNIZED) {
+            return null;
+        }
+        return BeerType.valueOf(beerTypeMessage.name());
+    }
+}
@@ -0,0 +1,23 @@
+package me.dio.rodolfohok.beerstock.history;
+
+import java.time.Duration;
+
+/**
+ * Storage tiers of the stock history, from finest to coarsest.
+ */
+public enum Resolution {
+
+    RAW(Duration.ZERO),
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1));
+
+    private final Duration width;
+
+    Resolution(Duration width) {
+        this.width = width;
+    }
+
+    public Duration getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,122 @@
+package me.dio.rodolfohok.beerstock.history;
+
+import me.dio.rodolfohok.beerstock.dto.StockHistoryDTO;
+import me.dio.rodolfohok.beerstock.dto.StockHistoryPointDTO;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory time series of every beer's stock level. Raw points are kept for the raw retention,
+ * one-minute buckets for the minute retention and hourly buckets indefinitely. A range query is
+ * answered from the finest tier that still covers {@code from} and is not finer than the requested
+ * step, so a month-long chart reads at most one bucket per minute and never the raw points.
+ * <p>
+ * Buckets also sum the units consumed, which gives consumption rates over windows far longer than
+ * the outbox keeps events. Like the rest of the history they start over when the service restarts.
+ */
+public class StockHistory {
+
+    private final Clock clock;
+    private final Duration rawRetention;
+    private final Duration minuteRetention;
+    private final Map<Long, StockSeries> series = new ConcurrentHashMap<>();
+
+    public StockHistory(Clock clock, Duration rawRetention, Duration minuteRetention) {
+        this.clock = clock;
+        this.rawRetention = rawRetention;
+        this.minuteRetention = minuteRetention;
+    }
+
+    public void record(Long beerId, int quantity) {
+        record(beerId, quantity, 0);
+    }
+
+    /**
+     * Records a stock level that was reached by consuming {@code consumed} units.
+     */
+    public void record(Long beerId, int quantity, int consumed) {
+        series.computeIfAbsent(beerId, id -> new StockSeries()).record(clock.millis(), quantity, consumed);
+    }
+
+    public boolean contains(Long beerId) {
+        return series.containsKey(beerId);
+    }
+
+    /**
+     * Returns the stock of a beer between {@code from} (inclusive) and {@code to} (exclusive), one
+     * point per non-empty step starting at {@code from}. The step is widened to the resolution of
+     * the tier the query is answered from.
+     */
+    public StockHistoryDTO query(Long beerId, Instant from, Instant to, Duration step) {
+        Resolution resolution = resolutionFor(from, step);
+        Duration effectiveStep = step.compareTo(resolution.getWidth()) < 0 ? resolution.getWidth() : step;
+        long fromMillis = from.toEpochMilli();
+        long stepMillis = effectiveStep.toMillis();
+        List<StockHistoryPointDTO> points = new ArrayList<>();
+        Optional.ofNullable(series.get(beerId)).ifPresent(stockSeries -> stockSeries.forEach(resolution, fromMillis,
+                to.toEpochMilli(), (timestamp, values) -> {
+                    Instant bucket = Instant.ofEpochMilli(fromMillis + (timestamp - fromMillis) / stepMillis * stepMillis);
+                    StockHistoryPointDTO current = points.isEmpty() ? null : points.get(points.size() - 1);
+                    if (current == null || !current.getTimestamp().equals(bucket)) {
+                        points.add(new StockHistoryPointDTO(bucket, (int) values[0], (int) values[1], (int) values[2]));
+                    } else {
+                        current.setMin(Math.min(current.getMin(), (int) values[0]));
+                        current.setMax(Math.max(current.getMax(), (int) values[1]));
+                        current.setLast((int) values[2]);
+                    }
+                }));
+        return new StockHistoryDTO(beerId, from, to, effectiveStep, resolution, points);
+    }
+
+    /**
+     * Units consumed per beer from the start of the bucket holding {@code since} until now, read
+     * from the minute buckets while they still cover {@code since} and from the hourly ones
+     * otherwise. Beers that consumed nothing are left out.
+     */
+    public Map<Long, Long> consumedSince(Instant since) {
+        Resolution resolution = since.isBefore(clock.instant().minus(minuteRetention)) ? Resolution.HOUR : Resolution.MINUTE;
+        long sinceMillis = since.toEpochMilli();
+        long from = sinceMillis - Math.floorMod(sinceMillis, resolution.getWidth().toMillis());
+        Map<Long, Long> consumed = new HashMap<>();
+        series.forEach((beerId, stockSeries) -> {
+            long[] total = new long[1];
+            stockSeries.forEach(resolution, from, Long.MAX_VALUE, (timestamp, values) -> total[0] += values[3]);
+            if (total[0] > 0) {
+                consumed.put(beerId, total[0]);
+            }
+        });
+        return consumed;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.history.prune-interval-millis:60000}")
+    public void prune() {
+        long now = clock.millis();
+        long rawBefore = now - rawRetention.toMillis();
+        long minutesBefore = now - minuteRetention.toMillis();
+        series.values().forEach(stockSeries -> stockSeries.prune(rawBefore, minutesBefore));
+    }
+
+    public long sizeInBytes() {
+        return series.values().stream().mapToLong(StockSeries::sizeInBytes).sum();
+    }
+
+    private Resolution resolutionFor(Instant from, Duration step) {
+        Instant now = clock.instant();
+        if (step.compareTo(Resolution.MINUTE.getWidth()) < 0 && !from.isBefore(now.minus(rawRetention))) {
+            return Resolution.RAW;
+        }
+        if (step.compareTo(Resolution.HOUR.getWidth()) < 0 && !from.isBefore(now.minus(minuteRetention))) {
+            return Resolution.MINUTE;
+        }
+        return Resolution.HOUR;
+    }
+}
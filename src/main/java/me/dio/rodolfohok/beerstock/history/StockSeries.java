@@ -0,0 +1,151 @@
+package me.dio.rodolfohok.beerstock.history;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Stock levels of one beer at three resolutions. Every point goes to the raw tier and updates the
+ * open minute and hour buckets; a bucket is appended to its tier, as min, max and last quantity
+ * plus the units consumed within it, once a point of the next bucket arrives. Tiers are pruned
+ * independently, so coarse history outlives the raw points it was built from.
+ */
+final class StockSeries {
+
+    static final int CHUNK_POINTS = 256;
+
+    private final Tier raw = new Tier(1);
+    private final Tier minutes = new Tier(4);
+    private final Tier hours = new Tier(4);
+    private final Bucket minuteBucket = new Bucket(Resolution.MINUTE.getWidth().toMillis(), minutes);
+    private final Bucket hourBucket = new Bucket(Resolution.HOUR.getWidth().toMillis(), hours);
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    synchronized void record(long timestamp, long quantity, long consumed) {
+        // keeps the columns monotonic when callers race between reading the clock and getting here
+        long monotonicTimestamp = Math.max(timestamp, lastTimestamp);
+        lastTimestamp = monotonicTimestamp;
+        raw.append(monotonicTimestamp, quantity);
+        minuteBucket.add(monotonicTimestamp, quantity, consumed);
+        hourBucket.add(monotonicTimestamp, quantity, consumed);
+    }
+
+    synchronized void prune(long rawBefore, long minutesBefore) {
+        raw.prune(rawBefore);
+        minutes.prune(minutesBefore);
+    }
+
+    /**
+     * Streams the points of one tier with {@code from <= timestamp < to} as min, max and last
+     * quantity; raw points have all three equal, while buckets carry the units consumed as well.
+     */
+    synchronized void forEach(Resolution resolution, long from, long to, TimeSeriesChunk.PointConsumer consumer) {
+        switch (resolution) {
+            case RAW:
+                long[] point = new long[3];
+                raw.forEach(from, to, (timestamp, values) -> {
+                    point[0] = values[0];
+                    point[1] = values[0];
+                    point[2] = values[0];
+                    consumer.accept(timestamp, point);
+                });
+                break;
+            case MINUTE:
+                minutes.forEach(from, to, consumer);
+                minuteBucket.forEach(from, to, consumer);
+                break;
+            case HOUR:
+                hours.forEach(from, to, consumer);
+                hourBucket.forEach(from, to, consumer);
+                break;
+        }
+    }
+
+    synchronized int sizeInBytes() {
+        return raw.sizeInBytes() + minutes.sizeInBytes() + hours.sizeInBytes();
+    }
+
+    private static final class Tier {
+
+        private final int columns;
+        private final Deque<TimeSeriesChunk> sealed = new ArrayDeque<>();
+        private TimeSeriesChunk.Builder open;
+
+        Tier(int columns) {
+            this.columns = columns;
+        }
+
+        void append(long timestamp, long... values) {
+            if (open == null) {
+                open = new TimeSeriesChunk.Builder(columns);
+            }
+            open.append(timestamp, values);
+            if (open.getCount() == CHUNK_POINTS) {
+                sealed.addLast(open.build());
+                open = null;
+            }
+        }
+
+        void prune(long before) {
+            while (!sealed.isEmpty() && sealed.peekFirst().getLastTimestamp() < before) {
+                sealed.pollFirst();
+            }
+            if (sealed.isEmpty() && open != null && open.getLastTimestamp() < before) {
+                open = null;
+            }
+        }
+
+        void forEach(long from, long to, TimeSeriesChunk.PointConsumer consumer) {
+            for (TimeSeriesChunk chunk : sealed) {
+                chunk.forEach(from, to, consumer);
+            }
+            if (open != null) {
+                open.build().forEach(from, to, consumer);
+            }
+        }
+
+        int sizeInBytes() {
+            int size = sealed.stream().mapToInt(TimeSeriesChunk::sizeInBytes).sum();
+            return open == null ? size : size + open.build().sizeInBytes();
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long width;
+        private final Tier target;
+        private boolean empty = true;
+        private long start;
+        private final long[] aggregate = new long[4];
+
+        Bucket(long width, Tier target) {
+            this.width = width;
+            this.target = target;
+        }
+
+        void add(long timestamp, long value, long consumed) {
+            long bucketStart = timestamp - Math.floorMod(timestamp, width);
+            if (!empty && bucketStart != start) {
+                target.append(start, aggregate);
+                empty = true;
+            }
+            if (empty) {
+                start = bucketStart;
+                aggregate[0] = value;
+                aggregate[1] = value;
+                aggregate[3] = 0;
+                empty = false;
+            } else {
+                aggregate[0] = Math.min(aggregate[0], value);
+                aggregate[1] = Math.max(aggregate[1], value);
+            }
+            aggregate[2] = value;
+            aggregate[3] += consumed;
+        }
+
+        void forEach(long from, long to, TimeSeriesChunk.PointConsumer consumer) {
+            if (!empty && start >= from && start < to) {
+                consumer.accept(start, aggregate.clone());
+            }
+        }
+    }
+}
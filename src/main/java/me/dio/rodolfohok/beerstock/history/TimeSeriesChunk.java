@@ -0,0 +1,144 @@
+package me.dio.rodolfohok.beerstock.history;
+
+/**
+ * An immutable run of points stored column by column: one column of timestamps encoded as
+ * delta-of-delta varints, and one column per value encoded as varint deltas. Points arriving at a
+ * steady interval with slowly moving values cost two or three bytes each.
+ */
+final class TimeSeriesChunk {
+
+    private final long firstTimestamp;
+    private final long lastTimestamp;
+    private final int count;
+    private final byte[] timestamps;
+    private final byte[][] values;
+
+    TimeSeriesChunk(long firstTimestamp, long lastTimestamp, int count, byte[] timestamps, byte[][] values) {
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+        this.count = count;
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int sizeInBytes() {
+        int size = timestamps.length;
+        for (byte[] column : values) {
+            size += column.length;
+        }
+        return size;
+    }
+
+    /**
+     * Decodes the points with {@code from <= timestamp < to}, in time order.
+     */
+    void forEach(long from, long to, PointConsumer consumer) {
+        if (count == 0 || lastTimestamp < from || firstTimestamp >= to) {
+            return;
+        }
+        VarIntBuffer.Reader timestampReader = new VarIntBuffer.Reader(timestamps);
+        VarIntBuffer.Reader[] valueReaders = new VarIntBuffer.Reader[values.length];
+        for (int column = 0; column < values.length; column++) {
+            valueReaders[column] = new VarIntBuffer.Reader(values[column]);
+        }
+        long[] point = new long[values.length];
+        long timestamp = 0;
+        long delta = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                timestamp = timestampReader.read();
+            } else if (i == 1) {
+                delta = timestampReader.read();
+                timestamp += delta;
+            } else {
+                delta += timestampReader.read();
+                timestamp += delta;
+            }
+            for (int column = 0; column < point.length; column++) {
+                point[column] += valueReaders[column].read();
+            }
+            if (timestamp >= to) {
+                return;
+            }
+            if (timestamp >= from) {
+                consumer.accept(timestamp, point);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface PointConsumer {
+
+        void accept(long timestamp, long[] values);
+    }
+
+    /**
+     * Appends points in time order and seals them into a chunk.
+     */
+    static final class Builder {
+
+        private final VarIntBuffer timestamps = new VarIntBuffer(64);
+        private final VarIntBuffer[] values;
+        private final long[] previousValues;
+        private long firstTimestamp;
+        private long previousTimestamp;
+        private long previousDelta;
+        private int count;
+
+        Builder(int columns) {
+            values = new VarIntBuffer[columns];
+            for (int column = 0; column < columns; column++) {
+                values[column] = new VarIntBuffer(64);
+            }
+            previousValues = new long[columns];
+        }
+
+        void append(long timestamp, long... point) {
+            if (count > 0 && timestamp < previousTimestamp) {
+                throw new IllegalArgumentException("Points must be appended in time order");
+            }
+            if (count == 0) {
+                firstTimestamp = timestamp;
+                timestamps.write(timestamp);
+            } else {
+                long delta = timestamp - previousTimestamp;
+                timestamps.write(count == 1 ? delta : delta - previousDelta);
+                previousDelta = delta;
+            }
+            previousTimestamp = timestamp;
+            for (int column = 0; column < values.length; column++) {
+                values[column].write(point[column] - previousValues[column]);
+                previousValues[column] = point[column];
+            }
+            count++;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        long getLastTimestamp() {
+            return previousTimestamp;
+        }
+
+        TimeSeriesChunk build() {
+            byte[][] columns = new byte[values.length][];
+            for (int column = 0; column < values.length; column++) {
+                columns[column] = values[column].toByteArray();
+            }
+            return new TimeSeriesChunk(firstTimestamp, previousTimestamp, count, timestamps.toByteArray(), columns);
+        }
+    }
+}
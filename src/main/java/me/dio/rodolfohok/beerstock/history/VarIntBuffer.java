@@ -0,0 +1,66 @@
+package me.dio.rodolfohok.beerstock.history;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer of zigzag-encoded variable-length longs: small magnitudes of either sign
+ * take one byte, which is what delta and delta-of-delta columns mostly hold.
+ */
+final class VarIntBuffer {
+
+    private byte[] bytes;
+    private int size;
+
+    VarIntBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    void write(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            append((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        append((byte) zigzag);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void append(byte value) {
+        if (size == bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(16, bytes.length * 2));
+        }
+        bytes[size++] = value;
+    }
+
+    /**
+     * Sequential reader over an encoded column.
+     */
+    static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long read() {
+            long zigzag = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = bytes[position++];
+                zigzag |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    }
+}
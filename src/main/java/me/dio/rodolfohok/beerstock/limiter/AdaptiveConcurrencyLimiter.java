@@ -0,0 +1,81 @@
+package me.dio.rodolfohok.beerstock.limiter;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Gradient-style adaptive concurrency limit. The limit follows the ratio between the best latency
+ * seen recently (no queueing) and the latency of each completed request: while requests are as fast
+ * as the baseline the limit grows by a small queue allowance, and as soon as they start queueing
+ * (for connections, locks, CPU) the gradient drops below 1 and the limit shrinks.
+ * Requests over the limit are rejected instead of waiting.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long baselineWindowNanos;
+    private final LongSupplier nanoClock;
+
+    private double limit;
+    private int inFlight;
+    private long baselineRttNanos = Long.MAX_VALUE;
+    private long nextBaselineResetNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long baselineWindowNanos, LongSupplier nanoClock) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.baselineWindowNanos = baselineWindowNanos;
+        this.nanoClock = nanoClock;
+        this.nextBaselineResetNanos = nanoClock.getAsLong() + baselineWindowNanos;
+    }
+
+    /**
+     * Returns the start timestamp to hand back to {@link #release(long)}, or -1 when the request
+     * must be shed.
+     */
+    public synchronized long tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return -1;
+        }
+        inFlight++;
+        return nanoClock.getAsLong();
+    }
+
+    public synchronized void release(long startNanos) {
+        long now = nanoClock.getAsLong();
+        int inFlightAtCompletion = inFlight--;
+        onSample(now - startNanos, inFlightAtCompletion, now);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void onSample(long rttNanos, int inFlightAtCompletion, long now) {
+        if (now >= nextBaselineResetNanos) {
+            baselineRttNanos = rttNanos;
+            nextBaselineResetNanos = now + baselineWindowNanos;
+        } else {
+            baselineRttNanos = Math.min(baselineRttNanos, rttNanos);
+        }
+
+        // An application-limited sample (far below the limit) says nothing about the capacity.
+        if (inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, (double) baselineRttNanos / Math.max(1, rttNanos)));
+        double queueAllowance = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueAllowance;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+}
@@ -0,0 +1,155 @@
+package me.dio.rodolfohok.beerstock.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sheds load in front of the stock endpoints instead of letting requests queue for Tomcat threads
+ * and database connections: token buckets per endpoint and per client answer with 429, and an
+ * adaptive concurrency limit shared by all endpoints answers with 503.
+ * <p>
+ * Clients are told apart by remote address, or by the {@value #CLIENT_ID_HEADER} header only when
+ * it is trusted, i.e. set by a gateway in front of the service rather than by the caller. At most
+ * {@code maxTrackedClients} buckets are kept: when full, buckets that have refilled completely are
+ * dropped, since a fresh bucket would limit their client the same way, and clients that still find
+ * no room share one overflow bucket per endpoint. An active client's limit is never reset.
+ */
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final String START_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".start";
+    private static final String REJECTIONS_METRIC = "beerstock.limiter.rejections";
+
+    private final double endpointCapacity;
+    private final double endpointTokensPerSecond;
+    private final double clientCapacity;
+    private final double clientTokensPerSecond;
+    private final int maxTrackedClients;
+    private final boolean trustClientIdHeader;
+    private final long refillNanos;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionNanos;
+
+    public LoadSheddingInterceptor(double endpointTokensPerSecond, double endpointCapacity,
+                                   double clientTokensPerSecond, double clientCapacity, int maxTrackedClients,
+                                   boolean trustClientIdHeader, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                   MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.endpointTokensPerSecond = endpointTokensPerSecond;
+        this.endpointCapacity = endpointCapacity;
+        this.clientTokensPerSecond = clientTokensPerSecond;
+        this.clientCapacity = clientCapacity;
+        this.maxTrackedClients = maxTrackedClients;
+        this.trustClientIdHeader = trustClientIdHeader;
+        this.refillNanos = (long) (clientCapacity / clientTokensPerSecond * TimeUnit.SECONDS.toNanos(1));
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.lastEvictionNanos = new AtomicLong(nanoClock.getAsLong() - refillNanos);
+
+        Gauge.builder("beerstock.limiter.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("beerstock.limiter.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String endpoint = endpointOf(request);
+
+        TokenBucket endpointBucket = endpointBuckets.computeIfAbsent(endpoint,
+                key -> new TokenBucket(endpointCapacity, endpointTokensPerSecond, nanoClock));
+        if (!endpointBucket.tryAcquire()) {
+            return reject(response, endpoint, "endpoint-rate", HttpStatus.TOO_MANY_REQUESTS, endpointBucket);
+        }
+
+        TokenBucket clientBucket = clientBucket(endpoint, endpoint + '|' + clientOf(request));
+        if (!clientBucket.tryAcquire()) {
+            return reject(response, endpoint, "client-rate", HttpStatus.TOO_MANY_REQUESTS, clientBucket);
+        }
+
+        long start = concurrencyLimiter.tryAcquire();
+        if (start < 0) {
+            return reject(response, endpoint, "concurrency", HttpStatus.SERVICE_UNAVAILABLE, null);
+        }
+        request.setAttribute(START_ATTRIBUTE, start);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start != null) {
+            request.removeAttribute(START_ATTRIBUTE);
+            concurrencyLimiter.release((Long) start);
+        }
+    }
+
+    private TokenBucket clientBucket(String endpoint, String key) {
+        TokenBucket bucket = clientBuckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= maxTrackedClients) {
+            evictRefilledBuckets();
+            if (clientBuckets.size() >= maxTrackedClients) {
+                return overflowBuckets.computeIfAbsent(endpoint,
+                        overflow -> new TokenBucket(clientCapacity, clientTokensPerSecond, nanoClock));
+            }
+        }
+        return clientBuckets.computeIfAbsent(key, client -> new TokenBucket(clientCapacity, clientTokensPerSecond, nanoClock));
+    }
+
+    // a bucket can only have refilled once a full refill time has passed since the last sweep
+    private void evictRefilledBuckets() {
+        long now = nanoClock.getAsLong();
+        long last = lastEvictionNanos.get();
+        if (now - last >= refillNanos && lastEvictionNanos.compareAndSet(last, now)) {
+            clientBuckets.values().removeIf(TokenBucket::isFull);
+        }
+    }
+
+    private boolean reject(HttpServletResponse response, String endpoint, String reason, HttpStatus status, TokenBucket bucket) {
+        Counter.builder(REJECTIONS_METRIC)
+                .description("Requests shed by the rate and concurrency limiters")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(status.value());
+        if (bucket != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, bucket.secondsUntilNextToken())));
+        }
+        return false;
+    }
+
+    private String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + ' ' + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String clientId = trustClientIdHeader ? request.getHeader(CLIENT_ID_HEADER) : null;
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+}
@@ -3,6 +3,7 @@ package me.dio.rodolfohok.beerstock.mapper;
 import me.dio.rodolfohok.beerstock.dto.BeerDTO;
 import me.dio.rodolfohok.beerstock.entity.Beer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")
@@ -10,6 +11,8 @@ public interface BeerMapper {
 
     BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+    @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "deletionId", ignore = true)
     Beer toModel(BeerDTO beerDTO);
 
     BeerDTO toDTO(Beer beer);
@@ -0,0 +1,41 @@
+package me.dio.rodolfohok.beerstock.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every event as one JSON line to a local file.
+ */
+public class NdjsonFileStockOutboxSink implements StockOutboxSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public NdjsonFileStockOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<StockOutboxEvent> events) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE, StandardOpenOption.SYNC)) {
+            for (StockOutboxEvent event : events) {
+                writer.write(objectMapper.writeValueAsString(event));
+                writer.newLine();
+            }
+        }
+    }
+}
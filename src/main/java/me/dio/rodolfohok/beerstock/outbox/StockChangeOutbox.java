@@ -0,0 +1,50 @@
+package me.dio.rodolfohok.beerstock.outbox;
+
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Writes stock changes to the outbox table. Must be called inside the transaction that performs
+ * the change, so an event exists if and only if the change was committed.
+ */
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockChangeOutbox {
+
+    private final StockOutboxEventRepository stockOutboxEventRepository;
+
+    public void record(Beer beer, StockEventType type, int delta) {
+        record(beer, type, delta, beer.getQuantity());
+    }
+
+    public void record(Beer beer, StockEventType type, int delta, int quantityAfterChange) {
+        StockOutboxEvent event = new StockOutboxEvent();
+        event.setBeerId(beer.getId());
+        event.setType(type);
+        event.setName(beer.getName());
+        event.setBrand(beer.getBrand());
+        event.setMax(beer.getMax());
+        event.setBeerType(beer.getType());
+        event.setDelta(delta);
+        event.setQuantity(quantityAfterChange);
+        event.setOccurredAt(Instant.now());
+        stockOutboxEventRepository.save(event);
+    }
+
+    /**
+     * Records a {@code DELETED} event for each of the given beers that the delete identified by
+     * {@code deletionId} tombstoned, with a single insert that copies the beers' rows, so deleting
+     * them never loads them. Beers another delete got to first are left to that delete.
+     */
+    public int recordDeleted(Collection<Long> beerIds, String deletionId) {
+        return stockOutboxEventRepository.insertDeletedEvents(beerIds, deletionId);
+    }
+}
@@ -0,0 +1,85 @@
+package me.dio.rodolfohok.beerstock.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Drains unpublished outbox events in id order, in batches, to the configured sink. A batch is
+ * marked as published only after the sink accepted it, which gives at-least-once delivery;
+ * published events are kept for the retention period and then purged. Events are written on the
+ * shard of their beer, so each shard's outbox is drained and purged in turn.
+ * <p>
+ * Ids are allocated on insert but become visible on commit, so a lower id can show up after a
+ * higher one was relayed. Like {@link me.dio.rodolfohok.beerstock.replication.ReplicationLog}, only
+ * events older than the settle delay are relayed, which gives in-flight transactions that much time
+ * to commit and keeps each beer's events in order for consumers.
+ */
+@Slf4j
+public class StockOutboxRelay {
+
+    private final StockOutboxEventRepository stockOutboxEventRepository;
+    private final StockOutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerShards beerShards;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration settleDelay;
+
+    public StockOutboxRelay(StockOutboxEventRepository stockOutboxEventRepository, StockOutboxSink sink,
+                            TransactionTemplate transactionTemplate, BeerShards beerShards, int batchSize,
+                            Duration retention, Duration settleDelay) {
+        this.stockOutboxEventRepository = stockOutboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.beerShards = beerShards;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.settleDelay = settleDelay;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.outbox.relay.interval-millis:500}")
+    public void relay() {
+        beerShards.forEachShard(shard -> {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.outbox.purge.interval-millis:60000}")
+    public void purge() {
+        Instant publishedBefore = Instant.now().minus(retention);
+        beerShards.forEachShard(shard -> transactionTemplate.executeWithoutResult(status ->
+                stockOutboxEventRepository.deletePublishedBefore(publishedBefore)));
+    }
+
+    int relayBatch() {
+        Instant settledBefore = Instant.now().minus(settleDelay);
+        List<StockOutboxEvent> batch = stockOutboxEventRepository.findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(
+                settledBefore, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(batch);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not publish {} stock events, retrying on the next run", batch.size(), e);
+            return 0;
+        }
+        List<Long> ids = batch.stream().map(StockOutboxEvent::getId).collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> stockOutboxEventRepository.markPublished(ids, Instant.now()));
+        return batch.size();
+    }
+}
@@ -0,0 +1,16 @@
+package me.dio.rodolfohok.beerstock.outbox;
+
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the stock change events drained from the outbox. Events arrive in outbox order,
+ * which keeps them ordered per beer; a batch may be delivered again if marking it as published
+ * fails, so consumers must tolerate duplicates (the event id identifies them).
+ */
+public interface StockOutboxSink {
+
+    void publish(List<StockOutboxEvent> events) throws IOException;
+}
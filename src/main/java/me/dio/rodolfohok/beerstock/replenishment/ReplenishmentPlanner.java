@@ -0,0 +1,139 @@
+package me.dio.rodolfohok.beerstock.replenishment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import me.dio.rodolfohok.beerstock.dto.BrandReplenishmentDTO;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentPlanDTO;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentSuggestionDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Suggests reorders for beers that are out of stock or are projected to run out within the
+ * horizon. Consumption rates come from the units consumed during the consumption window as summed
+ * up by the {@link StockHistory} buckets, so the window can span days or weeks without a query.
+ * <p>
+ * The catalog is read by id in chunks, one short read-only transaction each, and every chunk is
+ * planned on a fork-join pool while the next one is being read. The latest plan is kept in
+ * memory and replaced by each scheduled run.
+ */
+@Slf4j
+public class ReplenishmentPlanner {
+
+    private static final double MILLIS_PER_DAY = Duration.ofDays(1).toMillis();
+    private static final Comparator<ReplenishmentSuggestionDTO> MOST_URGENT_FIRST = Comparator
+            .comparing(ReplenishmentSuggestionDTO::getDaysUntilEmpty, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ReplenishmentSuggestionDTO::getName);
+
+    private final BeerRepository beerRepository;
+    private final StockHistory stockHistory;
+    private final Clock clock;
+    private final Duration consumptionWindow;
+    private final int horizonDays;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+    private final Timer planTimer;
+    private volatile ReplenishmentPlanDTO latest;
+
+    public ReplenishmentPlanner(BeerRepository beerRepository, StockHistory stockHistory,
+                                Clock clock, Duration consumptionWindow, int horizonDays, int chunkSize, int parallelism,
+                                MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.stockHistory = stockHistory;
+        this.clock = clock;
+        this.consumptionWindow = consumptionWindow;
+        this.horizonDays = horizonDays;
+        this.chunkSize = chunkSize;
+        this.pool = new ForkJoinPool(parallelism);
+        this.planTimer = meterRegistry.timer("beerstock.replenishment.plan");
+    }
+
+    /**
+     * The latest plan, planning right away when no scheduled run has finished yet. Callers that
+     * queued up behind that first plan are served it instead of planning the catalog again.
+     */
+    public ReplenishmentPlanDTO current() {
+        ReplenishmentPlanDTO plan = latest;
+        return plan != null ? plan : firstPlan();
+    }
+
+    private synchronized ReplenishmentPlanDTO firstPlan() {
+        ReplenishmentPlanDTO plan = latest;
+        return plan != null ? plan : plan();
+    }
+
+    @Scheduled(initialDelayString = "${beerstock.replenishment.interval-millis:300000}",
+            fixedDelayString = "${beerstock.replenishment.interval-millis:300000}")
+    public synchronized ReplenishmentPlanDTO plan() {
+        long start = System.nanoTime();
+        Instant plannedAt = clock.instant();
+        Map<Long, Long> consumed = stockHistory.consumedSince(plannedAt.minus(consumptionWindow));
+        double windowDays = consumptionWindow.toMillis() / MILLIS_PER_DAY;
+
+        Map<String, List<ReplenishmentSuggestionDTO>> suggestions = new TreeMap<>();
+        long beersPlanned = 0;
+        ForkJoinTask<Map<String, List<ReplenishmentSuggestionDTO>>> pending = null;
+        List<Beer> chunk = beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, chunkSize));
+        while (!chunk.isEmpty()) {
+            ForkJoinTask<Map<String, List<ReplenishmentSuggestionDTO>>> planned =
+                    pool.submit(new ReplenishmentTask(chunk, 0, chunk.size(), consumed, windowDays, horizonDays));
+            if (pending != null) {
+                ReplenishmentTask.merge(suggestions, pending.join());
+            }
+            pending = planned;
+            beersPlanned += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            Long lastId = chunk.get(chunk.size() - 1).getId();
+            chunk = beerRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+        }
+        if (pending != null) {
+            ReplenishmentTask.merge(suggestions, pending.join());
+        }
+
+        List<BrandReplenishmentDTO> brands = new ArrayList<>(suggestions.size());
+        suggestions.forEach((brand, brandSuggestions) -> {
+            brandSuggestions.sort(MOST_URGENT_FIRST);
+            brands.add(BrandReplenishmentDTO.builder()
+                    .brand(brand)
+                    .reorderQuantity(brandSuggestions.stream().mapToLong(ReplenishmentSuggestionDTO::getReorderQuantity).sum())
+                    .suggestions(brandSuggestions)
+                    .build());
+        });
+        ReplenishmentPlanDTO plan = ReplenishmentPlanDTO.builder()
+                .plannedAt(plannedAt)
+                .consumptionWindow(consumptionWindow)
+                .horizonDays(horizonDays)
+                .beersPlanned(beersPlanned)
+                .brands(brands)
+                .build();
+        latest = plan;
+        long elapsed = System.nanoTime() - start;
+        planTimer.record(Duration.ofNanos(elapsed));
+        log.info("Planned replenishment of {} beers, {} brands to reorder, in {} ms", beersPlanned, brands.size(),
+                Duration.ofNanos(elapsed).toMillis());
+        return plan;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
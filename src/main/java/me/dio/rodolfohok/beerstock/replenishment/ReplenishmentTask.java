@@ -0,0 +1,90 @@
+package me.dio.rodolfohok.beerstock.replenishment;
+
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentSuggestionDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plans one chunk of the catalog, splitting it in halves until a slice is small enough to plan
+ * sequentially. Yields the suggestions of the chunk grouped by brand.
+ */
+class ReplenishmentTask extends RecursiveTask<Map<String, List<ReplenishmentSuggestionDTO>>> {
+
+    static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    private final List<Beer> beers;
+    private final int from;
+    private final int to;
+    private final Map<Long, Long> consumed;
+    private final double windowDays;
+    private final int horizonDays;
+
+    ReplenishmentTask(List<Beer> beers, int from, int to, Map<Long, Long> consumed, double windowDays, int horizonDays) {
+        this.beers = beers;
+        this.from = from;
+        this.to = to;
+        this.consumed = consumed;
+        this.windowDays = windowDays;
+        this.horizonDays = horizonDays;
+    }
+
+    @Override
+    protected Map<String, List<ReplenishmentSuggestionDTO>> compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            return plan();
+        }
+        int middle = (from + to) >>> 1;
+        ReplenishmentTask left = new ReplenishmentTask(beers, from, middle, consumed, windowDays, horizonDays);
+        ReplenishmentTask right = new ReplenishmentTask(beers, middle, to, consumed, windowDays, horizonDays);
+        left.fork();
+        Map<String, List<ReplenishmentSuggestionDTO>> suggestions = right.compute();
+        merge(suggestions, left.join());
+        return suggestions;
+    }
+
+    static void merge(Map<String, List<ReplenishmentSuggestionDTO>> target, Map<String, List<ReplenishmentSuggestionDTO>> source) {
+        source.forEach((brand, suggestions) -> target.merge(brand, suggestions, (existing, added) -> {
+            existing.addAll(added);
+            return existing;
+        }));
+    }
+
+    private Map<String, List<ReplenishmentSuggestionDTO>> plan() {
+        Map<String, List<ReplenishmentSuggestionDTO>> suggestions = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            Beer beer = beers.get(i);
+            ReplenishmentSuggestionDTO suggestion = suggest(beer);
+            if (suggestion != null) {
+                suggestions.computeIfAbsent(beer.getBrand(), brand -> new ArrayList<>()).add(suggestion);
+            }
+        }
+        return suggestions;
+    }
+
+    private ReplenishmentSuggestionDTO suggest(Beer beer) {
+        int reorderQuantity = beer.getMax() - beer.getQuantity();
+        if (reorderQuantity <= 0) {
+            return null;
+        }
+        double consumptionPerDay = consumed.getOrDefault(beer.getId(), 0L) / windowDays;
+        Double daysUntilEmpty = consumptionPerDay > 0 ? beer.getQuantity() / consumptionPerDay : null;
+        boolean runsOut = daysUntilEmpty != null && daysUntilEmpty <= horizonDays;
+        if (beer.getQuantity() > 0 && !runsOut) {
+            return null;
+        }
+        return ReplenishmentSuggestionDTO.builder()
+                .beerId(beer.getId())
+                .name(beer.getName())
+                .quantity(beer.getQuantity())
+                .max(beer.getMax())
+                .consumptionPerDay(consumptionPerDay)
+                .daysUntilEmpty(beer.getQuantity() == 0 ? Double.valueOf(0) : daysUntilEmpty)
+                .reorderQuantity(reorderQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary wire format of snapshots and delta pages. Each stream starts with a magic number and a
+ * format version; enums are written as ordinals, so reordering {@link BeerType} or
+ * {@link StockEventType} requires bumping {@link #VERSION}.
+ */
+public final class ReplicationCodec {
+
+    static final int SNAPSHOT_MAGIC = 0x42534E50;
+    static final int DELTAS_MAGIC = 0x42444C54;
+    static final byte VERSION = 1;
+
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+    private static final StockEventType[] EVENT_TYPES = StockEventType.values();
+
+    private ReplicationCodec() {
+    }
+
+    public static void writeSnapshot(ReplicationSnapshot snapshot, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        writeHeader(data, SNAPSHOT_MAGIC);
+        data.writeLong(snapshot.getSequence());
+        data.writeInt(snapshot.getBeers().size());
+        for (Beer beer : snapshot.getBeers()) {
+            writeBeer(beer, data);
+        }
+        data.flush();
+    }
+
+    public static ReplicationSnapshot readSnapshot(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        readHeader(data, SNAPSHOT_MAGIC);
+        long sequence = data.readLong();
+        int count = data.readInt();
+        List<Beer> beers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            beers.add(readBeer(data));
+        }
+        return new ReplicationSnapshot(sequence, beers);
+    }
+
+    public static void writeDeltas(ReplicationDeltas deltas, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        writeHeader(data, DELTAS_MAGIC);
+        data.writeLong(deltas.getHeadSequence());
+        data.writeInt(deltas.getEvents().size());
+        for (StockOutboxEvent event : deltas.getEvents()) {
+            data.writeLong(event.getId());
+            data.writeLong(event.getBeerId());
+            data.writeByte(event.getType().ordinal());
+            data.writeUTF(event.getName());
+            data.writeUTF(event.getBrand());
+            data.writeInt(event.getMax());
+            data.writeByte(event.getBeerType().ordinal());
+            data.writeInt(event.getDelta());
+            data.writeInt(event.getQuantity());
+            data.writeLong(event.getOccurredAt().toEpochMilli());
+        }
+        data.flush();
+    }
+
+    public static ReplicationDeltas readDeltas(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        readHeader(data, DELTAS_MAGIC);
+        long headSequence = data.readLong();
+        int count = data.readInt();
+        List<StockOutboxEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new StockOutboxEvent(data.readLong(), data.readLong(), EVENT_TYPES[data.readUnsignedByte()],
+                    data.readUTF(), data.readUTF(), data.readInt(), BEER_TYPES[data.readUnsignedByte()],
+                    data.readInt(), data.readInt(), Instant.ofEpochMilli(data.readLong()), null));
+        }
+        return new ReplicationDeltas(headSequence, events);
+    }
+
+    /**
+     * Writes a single snapshot row, for callers that stream rows into a format of their own.
+     */
+    public static void writeBeer(Beer beer, DataOutput data) throws IOException {
+        data.writeLong(beer.getId());
+        data.writeUTF(beer.getName());
+        data.writeUTF(beer.getBrand());
+        data.writeInt(beer.getMax());
+        data.writeInt(beer.getQuantity());
+        data.writeByte(beer.getType().ordinal());
+    }
+
+    public static Beer readBeer(DataInput data) throws IOException {
+        return new Beer(data.readLong(), data.readUTF(), data.readUTF(), data.readInt(), data.readInt(),
+                BEER_TYPES[data.readUnsignedByte()]);
+    }
+
+    private static void writeHeader(DataOutputStream data, int magic) throws IOException {
+        data.writeInt(magic);
+        data.writeByte(VERSION);
+    }
+
+    private static void readHeader(DataInputStream data, int magic) throws IOException {
+        int actualMagic = data.readInt();
+        if (actualMagic != magic) {
+            throw new IOException(String.format("Unexpected replication stream magic %08x", actualMagic));
+        }
+        byte version = data.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replication format version " + version);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import lombok.Value;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+
+import java.util.List;
+
+/**
+ * A page of stock deltas in sequence order, together with the highest sequence number the primary
+ * has committed, which is what followers measure their lag against.
+ */
+@Value
+public class ReplicationDeltas {
+
+    long headSequence;
+    List<StockOutboxEvent> events;
+}
@@ -0,0 +1,157 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import me.dio.rodolfohok.beerstock.catalog.CatalogVersion;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Follower side of replication: loads a snapshot from the primary once, then polls for deltas
+ * after the last applied sequence number. Deltas carry the resulting quantity and the full beer
+ * row, so applying one is idempotent and replaying deltas already reflected in the snapshot is
+ * harmless. If the primary purged deltas the follower still needs, it starts over from a new
+ * snapshot.
+ * <p>
+ * Rows are written with plain JDBC, keeping the primary's ids and bypassing {@code BeerService},
+ * so nothing applied here lands in the follower's own outbox. Followers serve reads; writes sent
+ * to a follower are overwritten by the next delta for the same beer.
+ */
+@Slf4j
+public class ReplicationFollower {
+
+    private static final String INSERT_BEER =
+            "insert into beer (id, name, brand, max, quantity, type) values (?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_BEER =
+            "merge into beer (id, name, brand, max, quantity, type) key (id) values (?, ?, ?, ?, ?, ?)";
+
+    private final RestTemplate restTemplate;
+    private final String primaryUrl;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersion catalogVersion;
+    private final int batchSize;
+
+    private final AtomicLong appliedSequence = new AtomicLong(-1);
+    private final AtomicLong headSequence = new AtomicLong();
+    private final AtomicLong caughtUpAtMillis = new AtomicLong(System.currentTimeMillis());
+
+    public ReplicationFollower(RestTemplate restTemplate, String primaryUrl, JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate, CatalogVersion catalogVersion,
+                               MeterRegistry meterRegistry, int batchSize) {
+        this.restTemplate = restTemplate;
+        this.primaryUrl = primaryUrl;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogVersion = catalogVersion;
+        this.batchSize = batchSize;
+        Gauge.builder("beerstock.replication.applied.sequence", appliedSequence, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("beerstock.replication.lag.events", this, ReplicationFollower::getLagEvents)
+                .register(meterRegistry);
+        Gauge.builder("beerstock.replication.lag.seconds", this, follower -> follower.getLagMillis() / 1000.0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.replication.poll-millis:200}")
+    public void poll() {
+        try {
+            if (appliedSequence.get() < 0) {
+                bootstrap();
+            }
+            int applied;
+            do {
+                applied = pullDeltas();
+            } while (applied == batchSize);
+        } catch (HttpClientErrorException.Gone e) {
+            log.warn("Primary no longer has the deltas after sequence {}, reloading the snapshot", appliedSequence.get());
+            appliedSequence.set(-1);
+        } catch (RestClientException e) {
+            log.warn("Could not replicate from {}, retrying on the next run", primaryUrl, e);
+        }
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence.get();
+    }
+
+    public long getLagEvents() {
+        long applied = appliedSequence.get();
+        return applied < 0 ? headSequence.get() : Math.max(0, headSequence.get() - applied);
+    }
+
+    /**
+     * Time since the follower last had every settled delta of the primary applied.
+     */
+    public long getLagMillis() {
+        return System.currentTimeMillis() - caughtUpAtMillis.get();
+    }
+
+    void bootstrap() {
+        ReplicationSnapshot snapshot = restTemplate.execute(primaryUrl + "/internal/replication/snapshot",
+                HttpMethod.GET, null, response -> ReplicationCodec.readSnapshot(response.getBody()));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from beer");
+            jdbcTemplate.batchUpdate(INSERT_BEER, snapshot.getBeers().stream()
+                    .map(ReplicationFollower::row)
+                    .collect(Collectors.toList()));
+        });
+        catalogVersion.bump();
+        headSequence.set(snapshot.getSequence());
+        appliedSequence.set(snapshot.getSequence());
+        log.info("Loaded replication snapshot of {} beers at sequence {}", snapshot.getBeers().size(), snapshot.getSequence());
+    }
+
+    int pullDeltas() {
+        long after = appliedSequence.get();
+        ReplicationDeltas deltas = restTemplate.execute(
+                primaryUrl + "/internal/replication/deltas?after={after}&limit={limit}", HttpMethod.GET, null,
+                response -> ReplicationCodec.readDeltas(response.getBody()), after, batchSize);
+        List<StockOutboxEvent> events = deltas.getEvents();
+        if (!events.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> events.forEach(this::apply));
+            catalogVersion.bump();
+            appliedSequence.set(events.get(events.size() - 1).getId());
+        }
+        headSequence.set(deltas.getHeadSequence());
+        if (appliedSequence.get() >= deltas.getHeadSequence()) {
+            caughtUpAtMillis.set(System.currentTimeMillis());
+        }
+        return events.size();
+    }
+
+    private void apply(StockOutboxEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                // the snapshot may already hold a newer beer under this name, its own CREATED delta follows
+                jdbcTemplate.update("delete from beer where name = ? and id <> ?", event.getName(), event.getBeerId());
+                jdbcTemplate.update(MERGE_BEER, event.getBeerId(), event.getName(), event.getBrand(), event.getMax(),
+                        event.getQuantity(), event.getBeerType().name());
+                break;
+            case INCREMENTED:
+            case DECREMENTED:
+                jdbcTemplate.update("update beer set quantity = ? where id = ?", event.getQuantity(), event.getBeerId());
+                break;
+            case DELETED:
+                jdbcTemplate.update("delete from beer where id = ?", event.getBeerId());
+                break;
+        }
+    }
+
+    private static Object[] row(Beer beer) {
+        return new Object[]{beer.getId(), beer.getName(), beer.getBrand(), beer.getMax(), beer.getQuantity(),
+                beer.getType().name()};
+    }
+}
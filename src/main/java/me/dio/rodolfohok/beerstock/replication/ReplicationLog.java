@@ -0,0 +1,65 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import me.dio.rodolfohok.beerstock.exception.ReplicationGapException;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Primary side of replication. The stock outbox doubles as the delta log: outbox ids are the
+ * sequence numbers and events stay readable, published or not, until the outbox retention purge.
+ * <p>
+ * Outbox ids are allocated when the row is inserted but become visible when the transaction
+ * commits, so a lower id can show up after a higher one. Only events older than the settle delay
+ * are served, which gives in-flight transactions that much time to commit before followers move
+ * their sequence past them.
+ */
+public class ReplicationLog {
+
+    private final BeerRepository beerRepository;
+    private final StockOutboxEventRepository stockOutboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settleDelay;
+
+    public ReplicationLog(BeerRepository beerRepository, StockOutboxEventRepository stockOutboxEventRepository,
+                          TransactionTemplate transactionTemplate, Duration settleDelay) {
+        this.beerRepository = beerRepository;
+        this.stockOutboxEventRepository = stockOutboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.settleDelay = settleDelay;
+    }
+
+    public ReplicationSnapshot snapshot() {
+        return transactionTemplate.execute(status -> {
+            long sequence = headSequence(settledBefore());
+            return new ReplicationSnapshot(sequence, beerRepository.findAll());
+        });
+    }
+
+    public ReplicationDeltas deltas(long afterSequence, int limit) throws ReplicationGapException {
+        Long firstId = stockOutboxEventRepository.findFirstId();
+        if (firstId != null && firstId > afterSequence + 1) {
+            throw new ReplicationGapException(afterSequence, firstId);
+        }
+        Instant settledBefore = settledBefore();
+        long headSequence = headSequence(settledBefore);
+        List<StockOutboxEvent> events = stockOutboxEventRepository.findByIdGreaterThanAndOccurredAtBeforeOrderByIdAsc(
+                afterSequence, settledBefore, PageRequest.of(0, limit));
+        return new ReplicationDeltas(headSequence, events);
+    }
+
+    private long headSequence(Instant settledBefore) {
+        Long lastId = stockOutboxEventRepository.findLastIdOccurredBefore(settledBefore);
+        return lastId == null ? 0 : lastId;
+    }
+
+    private Instant settledBefore() {
+        return Instant.now().minus(settleDelay);
+    }
+}
@@ -0,0 +1,17 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import lombok.Value;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+
+import java.util.List;
+
+/**
+ * The full {@code Beer} table as of {@code sequence}: every delta with a higher sequence number
+ * may or may not be reflected in it, so followers replay them all on top.
+ */
+@Value
+public class ReplicationSnapshot {
+
+    long sequence;
+    List<Beer> beers;
+}
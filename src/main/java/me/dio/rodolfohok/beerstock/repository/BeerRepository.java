@@ -1,11 +1,44 @@
 package me.dio.rodolfohok.beerstock.repository;
 
 import me.dio.rodolfohok.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BeerRepository extends JpaRepository<Beer, Long> {
 
+    @Transactional(readOnly = true)
     Optional<Beer> findByName(String name);
+
+    @Transactional(readOnly = true)
+    List<Beer> findByNameIn(Collection<String> names);
+
+    @Transactional(readOnly = true)
+    List<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying
+    @Query("update Beer b set b.deletedAt = :deletedAt, b.deletionId = :deletionId where b.id in :ids and b.deletedAt is null")
+    int markDeleted(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt,
+                    @Param("deletionId") String deletionId);
+
+    @Modifying
+    @Query("update Beer b set b.deletedAt = null, b.deletionId = null where b.id = :id and b.deletedAt is not null")
+    int restore(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "delete from beer where name = :name and deleted_at is not null", nativeQuery = true)
+    int purgeDeletedByName(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "delete from beer where id in "
+            + "(select id from beer where deleted_at < :deletedBefore order by id limit :limit)", nativeQuery = true)
+    int purgeDeletedBefore(@Param("deletedBefore") Instant deletedBefore, @Param("limit") int limit);
 }
@@ -0,0 +1,39 @@
+package me.dio.rodolfohok.beerstock.repository;
+
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockOutboxEventRepository extends JpaRepository<StockOutboxEvent, Long> {
+
+    List<StockOutboxEvent> findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(Instant occurredBefore, Pageable pageable);
+
+    List<StockOutboxEvent> findByIdGreaterThanAndOccurredAtBeforeOrderByIdAsc(Long id, Instant occurredBefore, Pageable pageable);
+
+    @Query("select max(e.id) from StockOutboxEvent e where e.occurredAt < :occurredBefore")
+    Long findLastIdOccurredBefore(@Param("occurredBefore") Instant occurredBefore);
+
+    @Query("select min(e.id) from StockOutboxEvent e")
+    Long findFirstId();
+
+    @Modifying
+    @Query("update StockOutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Modifying
+    @Query(value = "insert into stock_outbox_event (beer_id, type, name, brand, max, beer_type, delta, quantity, occurred_at) "
+            + "select id, 'DELETED', name, brand, max, type, -quantity, 0, deleted_at from beer "
+            + "where id in :beerIds and deletion_id = :deletionId", nativeQuery = true)
+    int insertDeletedEvents(@Param("beerIds") Collection<Long> beerIds, @Param("deletionId") String deletionId);
+
+    @Modifying
+    @Query("delete from StockOutboxEvent e where e.publishedAt < :publishedBefore")
+    int deletePublishedBefore(@Param("publishedBefore") Instant publishedBefore);
+}
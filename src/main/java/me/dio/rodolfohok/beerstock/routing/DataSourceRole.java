@@ -0,0 +1,6 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
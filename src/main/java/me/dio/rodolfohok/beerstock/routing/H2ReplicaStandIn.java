@@ -0,0 +1,88 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stands in for database replication when primary and replica are two local H2 databases. Each run
+ * copies the heartbeat and then the beer table in full, in one replica transaction, so the replica
+ * lags the primary by up to one sync interval. The replica schema is copied from the primary with
+ * {@code SCRIPT NODATA} on the first run.
+ */
+@Slf4j
+public class H2ReplicaStandIn {
+
+    private static final List<String> TABLES = List.of("replica_heartbeat", "beer");
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransactionTemplate;
+    private boolean schemaCopied;
+
+    public H2ReplicaStandIn(DataSource primary, DataSource replica) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replicaTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(replica));
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.routing.stand-in.sync-millis:1000}")
+    public synchronized void sync() {
+        if (!schemaCopied) {
+            copySchema();
+            schemaCopied = true;
+        }
+        // the heartbeat is read first, so the rows copied after it are at least as recent as it claims
+        List<List<Object[]>> rows = new ArrayList<>();
+        for (String table : TABLES) {
+            rows.add(read(table));
+        }
+        replicaTransactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < TABLES.size(); i++) {
+                write(TABLES.get(i), rows.get(i));
+            }
+        });
+    }
+
+    private void copySchema() {
+        List<String> script = primary.queryForList("script nodata table " + String.join(", ", TABLES), String.class);
+        replica.execute("drop all objects");
+        for (String statement : script) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        log.info("Copied the schema of {} to the replica", TABLES);
+    }
+
+    private List<Object[]> read(String table) {
+        return primary.query("select * from " + table, resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            List<Object[]> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                Object[] row = new Object[metaData.getColumnCount()];
+                for (int column = 0; column < row.length; column++) {
+                    row[column] = resultSet.getObject(column + 1);
+                }
+                rows.add(row);
+            }
+            return rows;
+        });
+    }
+
+    private void write(String table, List<Object[]> rows) {
+        replica.update("delete from " + table);
+        if (!rows.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(rows.get(0).length, "?"));
+            replica.batchUpdate("insert into " + table + " values (" + placeholders + ")", rows);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends the reads made inside {@link #call(Supplier)} to the primary, whatever their transaction
+ * says. Meant for reads whose result outlives the request, such as cached responses or stock
+ * holds, which must not capture a replica that is behind. Without {@link ReadWriteRoutingDataSource} it does nothing.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        if (REQUIRED.get() != null) {
+            return read.get();
+        }
+        REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REQUIRED.remove();
+        }
+    }
+
+    static boolean required() {
+        return REQUIRED.get() != null;
+    }
+}
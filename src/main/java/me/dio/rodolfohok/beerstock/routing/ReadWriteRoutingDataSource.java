@@ -0,0 +1,77 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. A read-only
+ * transaction still goes to the primary inside {@link PrimaryReads#call}, when its client wrote
+ * within the read-your-writes window, or when the replica is further behind than the allowed lag.
+ * <p>
+ * The routing key is only known once the transaction has started, so the datasource has to sit
+ * behind a {@link LazyConnectionDataSourceProxy}, which defers fetching the connection to the first
+ * statement; {@link #lazy()} returns one.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWrites readYourWrites;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter requiredPrimaryReads;
+    private final Counter recentWriteReads;
+    private final Counter laggingReplicaReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWrites readYourWrites,
+                                      ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.writes = routed(meterRegistry, DataSourceRole.PRIMARY, "read-write");
+        this.replicaReads = routed(meterRegistry, DataSourceRole.REPLICA, "read-only");
+        this.requiredPrimaryReads = routed(meterRegistry, DataSourceRole.PRIMARY, "primary-read");
+        this.recentWriteReads = routed(meterRegistry, DataSourceRole.PRIMARY, "recent-write");
+        this.laggingReplicaReads = routed(meterRegistry, DataSourceRole.PRIMARY, "replica-lag");
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public DataSource lazy() {
+        return new LazyConnectionDataSourceProxy(this);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite();
+                writes.increment();
+            }
+            return DataSourceRole.PRIMARY;
+        }
+        if (PrimaryReads.required()) {
+            requiredPrimaryReads.increment();
+            return DataSourceRole.PRIMARY;
+        }
+        if (readYourWrites.mustReadFromPrimary()) {
+            recentWriteReads.increment();
+            return DataSourceRole.PRIMARY;
+        }
+        if (replicaLagMonitor.isBehind()) {
+            laggingReplicaReads.increment();
+            return DataSourceRole.PRIMARY;
+        }
+        replicaReads.increment();
+        return DataSourceRole.REPLICA;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, DataSourceRole role, String reason) {
+        return meterRegistry.counter("beerstock.datasource.routed", "target", role.name().toLowerCase(), "reason", reason);
+    }
+}
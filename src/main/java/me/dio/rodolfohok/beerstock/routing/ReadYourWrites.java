@@ -0,0 +1,54 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently, so that their reads go to the primary until the replica
+ * has had time to catch up with their own writes. The client of the current thread is bound by
+ * {@link ReadYourWritesFilter}; threads without a client get no guarantee.
+ */
+public class ReadYourWrites {
+
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void bind(String clientId) {
+        CLIENT.set(clientId);
+    }
+
+    public void unbind() {
+        CLIENT.remove();
+    }
+
+    public void recordWrite() {
+        String clientId = CLIENT.get();
+        if (clientId != null) {
+            lastWriteNanos.put(clientId, System.nanoTime());
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        String clientId = CLIENT.get();
+        if (clientId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(clientId);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.routing.read-your-writes-millis:5000}")
+    public void expire() {
+        long now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+}
@@ -0,0 +1,36 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import me.dio.rodolfohok.beerstock.limiter.LoadSheddingInterceptor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Binds the client of each HTTP request to {@link ReadYourWrites}, identified by its
+ * {@value LoadSheddingInterceptor#CLIENT_ID_HEADER} header or else its remote address. A caller
+ * choosing its own id only decides which of its reads go to the primary, so the header is trusted.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(LoadSheddingInterceptor.CLIENT_ID_HEADER);
+        readYourWrites.bind(clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWrites.unbind();
+        }
+    }
+}
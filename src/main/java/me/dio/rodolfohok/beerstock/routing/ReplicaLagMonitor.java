@@ -0,0 +1,62 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures how far the replica is behind by writing a heartbeat timestamp to the primary and
+ * reading back the one the replica has. Whatever replicates the beer table also replicates the
+ * heartbeat, so the replica holds every write made before the heartbeat it returns. Until the
+ * first heartbeat is seen the replica counts as behind.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String CREATE_HEARTBEAT =
+            "create table if not exists replica_heartbeat (id int primary key, beat_at bigint not null)";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLag.toMillis();
+        this.primary.execute(CREATE_HEARTBEAT);
+        Gauge.builder("beerstock.datasource.replica.lag.seconds", this, monitor -> monitor.lagMillis / 1000.0)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.routing.heartbeat-millis:500}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", now) == 0) {
+            primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", now);
+        }
+        try {
+            List<Long> replicated = replica.queryForList("select beat_at from replica_heartbeat where id = 1", Long.class);
+            lagMillis = replicated.isEmpty() ? Long.MAX_VALUE : Math.max(0, now - replicated.get(0));
+        } catch (DataAccessException e) {
+            log.warn("Could not read the replica heartbeat, reading from the primary: {}", e.getMessage());
+            lagMillis = Long.MAX_VALUE;
+        }
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public boolean isBehind() {
+        return lagMillis > maxLagMillis;
+    }
+}
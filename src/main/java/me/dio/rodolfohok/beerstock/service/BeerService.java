@@ -1,83 +1,284 @@
 package me.dio.rodolfohok.beerstock.service;
 
 import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.catalog.BeerCatalogSnapshot;
+import me.dio.rodolfohok.beerstock.catalog.CatalogSnapshotHolder;
+import me.dio.rodolfohok.beerstock.catalog.CatalogVersion;
 import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupResultDTO;
 import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
 import me.dio.rodolfohok.beerstock.exception.BeerAlreadyRegisteredException;
 import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
 import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
 import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import me.dio.rodolfohok.beerstock.outbox.StockChangeOutbox;
 import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    static final int LOOKUP_CHUNK_SIZE = 100;
+
     private final BeerRepository beerRepository;
+    private final SingleFlight singleFlight;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final StockHolds stockHolds;
+    private final StockChangeOutbox stockChangeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogSnapshotHolder catalogSnapshotHolder;
+    private final StockHistory stockHistory;
+    private final CatalogVersion catalogVersion;
+    private final BeerShards beerShards;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
-        Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        Beer savedBeer = transactionTemplate.execute(status -> {
+            // a tombstone still holds the unique name, the new beer replaces it for good
+            beerRepository.purgeDeletedByName(beer.getName());
+            Beer createdBeer = beerRepository.save(beer);
+            stockChangeOutbox.record(createdBeer, StockEventType.CREATED, createdBeer.getQuantity());
+            return createdBeer;
+        });
+        return stockChanged(beerMapper.toDTO(savedBeer), 0);
     }
 
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
+        Optional<BeerCatalogSnapshot> snapshot = catalogSnapshotHolder.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().findByName(name)
+                    .orElseThrow(() -> new BeerNotFoundException(name));
+        }
+        return singleFlight.execute("findByName", name,
+                        () -> beerRepository.findByName(name).map(beerMapper::toDTO))
                 .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
     }
 
     public List<BeerDTO> listAll() {
+        Optional<BeerCatalogSnapshot> snapshot = catalogSnapshotHolder.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().listAll();
+        }
+        return singleFlight.execute("listAll", "", () -> beerRepository.findAll()
+                .stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * Lists the catalog like {@link #listAll()}, but always with a read that starts now instead of
+     * joining one already in flight, which may have started before the latest write.
+     */
+    public List<BeerDTO> listAllFresh() {
+        Optional<BeerCatalogSnapshot> snapshot = catalogSnapshotHolder.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().listAll();
+        }
         return beerRepository.findAll()
                 .stream()
                 .map(beerMapper::toDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Returns one page of the catalog ordered by id.
+     */
+    public List<BeerDTO> listPage(int page, int size) {
+        Optional<BeerCatalogSnapshot> snapshot = catalogSnapshotHolder.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().listAll().stream()
+                    .sorted(Comparator.comparing(BeerDTO::getId))
+                    .skip((long) page * size)
+                    .limit(size)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        return beerRepository.findAll(PageRequest.of(page, size, Sort.by("id"))).stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Resolves beers by name, then by id, handing one result per requested key to {@code sink} in
+     * request order. Repeated keys are read once and distinct keys are read
+     * {@value #LOOKUP_CHUNK_SIZE} at a time with an {@code IN} query, so the first results can be
+     * written out before the later chunks are queried.
+     */
+    public void lookup(List<String> names, List<Long> ids, Consumer<BeerLookupResultDTO> sink) {
+        Optional<BeerCatalogSnapshot> snapshot = catalogSnapshotHolder.current();
+        lookupInChunks(names,
+                chunk -> snapshot.isPresent()
+                        ? chunk.stream().map(snapshot.get()::findByName).flatMap(Optional::stream)
+                        : beerRepository.findByNameIn(chunk).stream().map(beerMapper::toDTO),
+                BeerDTO::getName,
+                (name, beer) -> BeerLookupResultDTO.builder().name(name).found(beer != null).beer(beer).build(),
+                sink);
+        lookupInChunks(ids,
+                chunk -> beerRepository.findAllById(chunk).stream().map(beerMapper::toDTO),
+                BeerDTO::getId,
+                (id, beer) -> BeerLookupResultDTO.builder().id(id).found(beer != null).beer(beer).build(),
+                sink);
+    }
+
+    private <K> void lookupInChunks(List<K> keys, Function<Collection<K>, Stream<BeerDTO>> fetch,
+                                    Function<BeerDTO, K> keyOf,
+                                    BiFunction<K, BeerDTO, BeerLookupResultDTO> toResult,
+                                    Consumer<BeerLookupResultDTO> sink) {
+        Set<K> fetched = new HashSet<>();
+        Map<K, BeerDTO> found = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (!fetched.contains(key)) {
+                Set<K> chunk = new LinkedHashSet<>();
+                for (int next = i; next < keys.size() && chunk.size() < LOOKUP_CHUNK_SIZE; next++) {
+                    if (!fetched.contains(keys.get(next))) {
+                        chunk.add(keys.get(next));
+                    }
+                }
+                fetch.apply(chunk).forEach(beer -> found.put(keyOf.apply(beer), beer));
+                fetched.addAll(chunk);
+            }
+            sink.accept(toResult.apply(key, found.get(key)));
+        }
     }
 
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
-        beerRepository.deleteById(id);
+        if (deleteAllById(List.of(id)) == 0) {
+            throw new BeerNotFoundException(id);
+        }
+    }
+
+    /**
+     * Soft deletes the given beers with one update and one outbox insert, however many there are.
+     * Unknown and already deleted ids are skipped. Tombstoned beers can be restored until they are
+     * purged. With sharding that is one update and one insert per shard holding any of the beers.
+     */
+    public int deleteAllById(Collection<Long> ids) {
+        // truncated so the instant compares equal once stored
+        Instant deletedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String deletionId = UUID.randomUUID().toString();
+        Map<Integer, List<Long>> idsByShard = beerShards.groupIdsByShard(ids);
+        int deleted = beerShards.scatter(idsByShard.keySet(), shard -> transactionTemplate.execute(status -> {
+            List<Long> shardIds = idsByShard.get(shard);
+            int tombstoned = beerRepository.markDeleted(shardIds, deletedAt, deletionId);
+            if (tombstoned > 0) {
+                stockChangeOutbox.recordDeleted(shardIds, deletionId);
+            }
+            return tombstoned;
+        })).stream().mapToInt(Integer::intValue).sum();
+        if (deleted > 0) {
+            catalogVersion.bump();
+        }
+        return deleted;
+    }
+
+    public BeerDTO restore(Long id) throws BeerNotFoundException {
+        Optional<Beer> restoredBeer = transactionTemplate.execute(status -> {
+            if (beerRepository.restore(id) == 0) {
+                return Optional.<Beer>empty();
+            }
+            Optional<Beer> beer = beerRepository.findById(id);
+            beer.ifPresent(restored -> stockChangeOutbox.record(restored, StockEventType.CREATED, restored.getQuantity()));
+            return beer;
+        });
+        return stockChanged(beerMapper.toDTO(restoredBeer.orElseThrow(() -> new BeerNotFoundException(id))), 0);
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
-        Optional<Beer> optSavedBeer = beerRepository.findByName(name);
+        Optional<Beer> optSavedBeer = transactionTemplate.execute(status -> beerRepository.findByName(name));
         if (optSavedBeer.isPresent()) {
             throw new BeerAlreadyRegisteredException(name);
         }
     }
 
+    // lookups that guard a write run in a read-write transaction, which keeps them on the primary
+    // when reads are routed to a replica
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
-        return beerRepository.findById(id)
+        return transactionTemplate.execute(status -> beerRepository.findById(id))
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        if (stockWriteCombiner.isEnabled()) {
+            return stockChanged(stockWriteCombiner.apply(id, quantityToIncrement), 0);
+        }
         Beer beerToIncrementStock = verifyIfExists(id);
         int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
         if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
             beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
-            Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-            return beerMapper.toDTO(incrementedBeerStock);
+            Beer incrementedBeerStock = transactionTemplate.execute(status -> {
+                Beer savedBeer = beerRepository.save(beerToIncrementStock);
+                stockChangeOutbox.record(savedBeer, StockEventType.INCREMENTED, quantityToIncrement);
+                return savedBeer;
+            });
+            return stockChanged(beerMapper.toDTO(incrementedBeerStock), 0);
         }
         throw new BeerStockExceededException(id, quantityToIncrement);
     }
 
     public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockExceededException {
+        return decrement(id, quantityToDecrement, false);
+    }
+
+    /**
+     * Decrements the stock without touching the units held by reservations, unless {@code allowHeld}:
+     * a reservation's commit passes it, as the units it decrements are the ones it holds.
+     */
+    BeerDTO decrement(Long id, int quantityToDecrement, boolean allowHeld) throws BeerNotFoundException, BeerStockExceededException {
+        if (stockWriteCombiner.isEnabled()) {
+            return stockChanged(stockWriteCombiner.apply(id, -quantityToDecrement, allowHeld), quantityToDecrement);
+        }
+        BeerDTO decrementedBeerStock = allowHeld
+                ? decrementStock(id, quantityToDecrement, 0)
+                : stockHolds.guard(id, held -> decrementStock(id, quantityToDecrement, held));
+        return stockChanged(decrementedBeerStock, quantityToDecrement);
+    }
+
+    private BeerDTO decrementStock(Long id, int quantityToDecrement, int held) throws BeerNotFoundException, BeerStockExceededException {
         Beer beerToDecrementStock = verifyIfExists(id);
         int quantityAfterDecrement = beerToDecrementStock.getQuantity() - quantityToDecrement;
-        if (quantityAfterDecrement < 0) {
+        if (quantityAfterDecrement < held) {
             throw new BeerStockExceededException(id, quantityToDecrement);
         }
         beerToDecrementStock.setQuantity(quantityAfterDecrement);
-        Beer decrementedBeerStock = beerRepository.save(beerToDecrementStock);
+        Beer decrementedBeerStock = transactionTemplate.execute(status -> {
+            Beer savedBeer = beerRepository.save(beerToDecrementStock);
+            stockChangeOutbox.record(savedBeer, StockEventType.DECREMENTED, -quantityToDecrement);
+            return savedBeer;
+        });
         return beerMapper.toDTO(decrementedBeerStock);
     }
+
+    private BeerDTO stockChanged(BeerDTO beerDTO, int consumed) {
+        stockHistory.record(beerDTO.getId(), beerDTO.getQuantity(), consumed);
+        catalogVersion.bump();
+        return beerDTO;
+    }
 }
@@ -0,0 +1,72 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import me.dio.rodolfohok.beerstock.limiter.AdaptiveConcurrencyLimiter;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Removes beers that have been tombstoned for longer than the retention, in bounded batches of one
+ * short transaction each, shard by shard. A run stops early while the API has more requests in flight than the
+ * allowed maximum, so purging happens when traffic is low and never competes with it for long.
+ */
+@Slf4j
+@Component
+public class BeerTombstonePurger {
+
+    private final BeerRepository beerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BeerShards beerShards;
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    public BeerTombstonePurger(BeerRepository beerRepository, TransactionTemplate transactionTemplate,
+                               BeerShards beerShards, ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+                               @Value("${beerstock.tombstones.retention-hours:24}") long retentionHours,
+                               @Value("${beerstock.tombstones.purge-batch-size:500}") int batchSize,
+                               @Value("${beerstock.tombstones.purge-max-in-flight:2}") int maxInFlight) {
+        this.beerRepository = beerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.beerShards = beerShards;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.retention = Duration.ofHours(retentionHours);
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.tombstones.purge-interval-millis:60000}")
+    public int purge() {
+        Instant deletedBefore = Instant.now().minus(retention);
+        int[] purged = {0};
+        beerShards.forEachShard(shard -> purged[0] += purgeShard(deletedBefore));
+        if (purged[0] > 0) {
+            log.info("Purged {} beers deleted before {}", purged[0], deletedBefore);
+        }
+        return purged[0];
+    }
+
+    private int purgeShard(Instant deletedBefore) {
+        int purged = 0;
+        int batch = batchSize;
+        while (batch == batchSize && !isBusy()) {
+            batch = transactionTemplate.execute(status -> beerRepository.purgeDeletedBefore(deletedBefore, batchSize));
+            purged += batch;
+        }
+        return purged;
+    }
+
+    private boolean isBusy() {
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter.getIfAvailable();
+        return limiter != null && limiter.getInFlight() > maxInFlight;
+    }
+}
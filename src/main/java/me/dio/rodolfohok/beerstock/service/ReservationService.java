@@ -0,0 +1,176 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationDTO;
+import me.dio.rodolfohok.beerstock.dto.StockAvailabilityDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.exception.ReservationNotFoundException;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.routing.PrimaryReads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hold-then-commit stock reservations. A reservation holds units of a beer until it is committed
+ * (turned into a decrement), released, or expires. Holds live in memory in {@link StockHolds}: per
+ * beer only the held total is kept, so available-to-promise is the stored quantity minus that total,
+ * and expiry is driven by a {@link HashedTimerWheel} rather than a task or query per reservation.
+ */
+@Service
+public class ReservationService {
+
+    private final BeerRepository beerRepository;
+    private final BeerService beerService;
+    private final StockHolds stockHolds;
+    private final HashedTimerWheel timerWheel;
+    private final ConcurrentMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Counter expiredReservations;
+
+    public ReservationService(BeerRepository beerRepository, BeerService beerService, StockHolds stockHolds,
+                              MeterRegistry meterRegistry,
+                              @Value("${beerstock.reservations.tick-millis:100}") long tickMillis,
+                              @Value("${beerstock.reservations.wheel-size:1024}") int wheelSize) {
+        this.beerRepository = beerRepository;
+        this.beerService = beerService;
+        this.stockHolds = stockHolds;
+        this.timerWheel = new HashedTimerWheel("reservation-expiry", tickMillis, TimeUnit.MILLISECONDS, wheelSize);
+        Gauge.builder("beerstock.reservations.active", reservations, ConcurrentMap::size)
+                .description("Reservations currently holding stock")
+                .register(meterRegistry);
+        this.expiredReservations = Counter.builder("beerstock.reservations.expired")
+                .description("Reservations released because their TTL elapsed")
+                .register(meterRegistry);
+    }
+
+    public ReservationDTO reserve(Long beerId, int quantity, long ttlSeconds) throws BeerNotFoundException, BeerStockExceededException {
+        // the stock is read under the hold lock, so a commit that decremented it meanwhile is seen
+        int availableToPromise = stockHolds.hold(beerId, quantity, () -> verifyIfExists(beerId).getQuantity());
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), beerId, quantity, Instant.now().plusSeconds(ttlSeconds));
+        reservations.put(reservation.id, reservation);
+        reservation.timeout = timerWheel.schedule(() -> expire(reservation), ttlSeconds, TimeUnit.SECONDS);
+        return toDTO(reservation, availableToPromise);
+    }
+
+    /**
+     * Turns the reservation into a decrement. The units stay held until the decrement has gone
+     * through, so they cannot be promised twice, and the decrement is the only one allowed to take
+     * held units; if it fails the reservation is put back as it was.
+     */
+    public BeerDTO commit(Long beerId, String reservationId)
+            throws ReservationNotFoundException, BeerNotFoundException, BeerStockExceededException {
+        Reservation reservation = claim(beerId, reservationId);
+        BeerDTO decremented;
+        try {
+            decremented = beerService.decrement(beerId, reservation.quantity, true);
+        } catch (Throwable e) {
+            reinstate(reservation);
+            throw e;
+        }
+        releaseHold(reservation);
+        return decremented;
+    }
+
+    public void release(Long beerId, String reservationId) throws ReservationNotFoundException {
+        take(beerId, reservationId);
+    }
+
+    public StockAvailabilityDTO availability(Long beerId) throws BeerNotFoundException {
+        Beer beer = verifyIfExists(beerId);
+        int held = stockHolds.heldFor(beerId);
+        return StockAvailabilityDTO.builder()
+                .beerId(beerId)
+                .quantity(beer.getQuantity())
+                .held(held)
+                .availableToPromise(beer.getQuantity() - held)
+                .build();
+    }
+
+    public int heldFor(Long beerId) {
+        return stockHolds.heldFor(beerId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.stop();
+    }
+
+    private Reservation take(Long beerId, String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = claim(beerId, reservationId);
+        releaseHold(reservation);
+        return reservation;
+    }
+
+    // removes the reservation so that nothing else can commit, release or expire it, but keeps its hold
+    private Reservation claim(Long beerId, String reservationId) throws ReservationNotFoundException {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.beerId.equals(beerId) || !reservations.remove(reservationId, reservation)) {
+            throw new ReservationNotFoundException(beerId, reservationId);
+        }
+        HashedTimerWheel.Timeout timeout = reservation.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        return reservation;
+    }
+
+    private void reinstate(Reservation reservation) {
+        reservations.put(reservation.id, reservation);
+        long remainingMillis = Math.max(0, reservation.expiresAt.toEpochMilli() - System.currentTimeMillis());
+        reservation.timeout = timerWheel.schedule(() -> expire(reservation), remainingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void expire(Reservation reservation) {
+        if (reservations.remove(reservation.id, reservation)) {
+            releaseHold(reservation);
+            expiredReservations.increment();
+        }
+    }
+
+    private void releaseHold(Reservation reservation) {
+        stockHolds.release(reservation.beerId, reservation.quantity);
+    }
+
+    // holds are checked against the primary's stock, a replica that is behind could promise units already gone
+    private Beer verifyIfExists(Long id) throws BeerNotFoundException {
+        return PrimaryReads.call(() -> beerRepository.findById(id))
+                .orElseThrow(() -> new BeerNotFoundException(id));
+    }
+
+    private ReservationDTO toDTO(Reservation reservation, int availableToPromise) {
+        return ReservationDTO.builder()
+                .id(reservation.id)
+                .beerId(reservation.beerId)
+                .quantity(reservation.quantity)
+                .expiresAt(reservation.expiresAt)
+                .availableToPromise(availableToPromise)
+                .build();
+    }
+
+    private static final class Reservation {
+
+        private final String id;
+        private final Long beerId;
+        private final int quantity;
+        private final Instant expiresAt;
+        private volatile HashedTimerWheel.Timeout timeout;
+
+        private Reservation(String id, Long beerId, int quantity, Instant expiresAt) {
+            this.id = id;
+            this.beerId = beerId;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into a single in-flight call whose result is shared by every
+ * caller that arrived while it was running. Nothing is kept once the call completes, so a caller
+ * arriving afterwards always triggers a fresh read.
+ */
+@Component
+public class SingleFlight {
+
+    private static final String METRIC_NAME = "beerstock.singleflight.calls";
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> call) {
+        String flightKey = operation + ':' + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> runningFlight = inFlight.putIfAbsent(flightKey, flight);
+        if (runningFlight != null) {
+            counter(operation, "coalesced").increment();
+            return (T) await(runningFlight);
+        }
+
+        counter(operation, "executed").increment();
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // errors too, or callers that joined the flight would wait for it forever
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder(METRIC_NAME)
+                .description("Reads executed against the repository or coalesced into an in-flight one")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import lombok.AllArgsConstructor;
+import me.dio.rodolfohok.beerstock.dto.StockHistoryDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.InvalidHistoryRangeException;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockHistoryService {
+
+    static final int MAX_POINTS = 10_000;
+    private static final Duration DEFAULT_WINDOW = Duration.ofHours(24);
+    private static final Duration DEFAULT_STEP = Duration.ofMinutes(1);
+
+    private final StockHistory stockHistory;
+    private final BeerRepository beerRepository;
+
+    public StockHistoryDTO history(Long id, Instant from, Instant to, Duration step)
+            throws BeerNotFoundException, InvalidHistoryRangeException {
+        Instant rangeEnd = to == null ? Instant.now() : to;
+        Instant rangeStart = from == null ? rangeEnd.minus(DEFAULT_WINDOW) : from;
+        Duration rangeStep = step == null ? DEFAULT_STEP : step;
+        if (!rangeStart.isBefore(rangeEnd)) {
+            throw new InvalidHistoryRangeException("from must be before to");
+        }
+        if (rangeStep.isNegative() || rangeStep.isZero()) {
+            throw new InvalidHistoryRangeException("step must be positive");
+        }
+        if (Duration.between(rangeStart, rangeEnd).dividedBy(rangeStep) > MAX_POINTS) {
+            throw new InvalidHistoryRangeException(String.format("more than %d steps requested", MAX_POINTS));
+        }
+        // history outlives deleted beers, so only ids that never had stock are unknown
+        if (!stockHistory.contains(id) && !beerRepository.existsById(id)) {
+            throw new BeerNotFoundException(id);
+        }
+        return stockHistory.query(id, rangeStart, rangeEnd, rangeStep);
+    }
+}
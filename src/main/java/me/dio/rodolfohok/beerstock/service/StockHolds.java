@@ -0,0 +1,110 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Units of stock held by reservations, per beer. Placing a hold and any decrement that must leave
+ * the held units alone run under the same per-beer lock, so the stock they check cannot change
+ * between the check and the write, and available-to-promise never goes negative.
+ * <p>
+ * A beer's entry only lives while it is held or locked: once it is left empty it is retired and
+ * removed, and a caller that still finds it retired looks it up again.
+ */
+@Component
+public class StockHolds {
+
+    private final ConcurrentMap<Long, Held> heldByBeer = new ConcurrentHashMap<>();
+
+    public int heldFor(Long beerId) {
+        Held held = heldByBeer.get(beerId);
+        if (held == null) {
+            return 0;
+        }
+        synchronized (held) {
+            return held.units;
+        }
+    }
+
+    /**
+     * Runs the action with the units currently held for the beer, while no hold on it can be placed
+     * or released.
+     */
+    public <T> T guard(Long beerId, HeldAction<T> action) throws BeerNotFoundException, BeerStockExceededException {
+        return locked(beerId, held -> action.apply(held.units));
+    }
+
+    /**
+     * Holds {@code quantity} units of the beer if its stock, read under the lock, leaves that many
+     * available to promise, and returns what is left available after the hold.
+     */
+    public int hold(Long beerId, int quantity, StockReader stock) throws BeerNotFoundException, BeerStockExceededException {
+        return locked(beerId, held -> {
+            int availableToPromise = stock.read() - held.units;
+            if (availableToPromise < quantity) {
+                throw new BeerStockExceededException(beerId, quantity);
+            }
+            held.units += quantity;
+            return availableToPromise - quantity;
+        });
+    }
+
+    public void release(Long beerId, int quantity) {
+        Held held = heldByBeer.get(beerId);
+        synchronized (held) {
+            held.units -= quantity;
+            retireIfEmpty(beerId, held);
+        }
+    }
+
+    private <T> T locked(Long beerId, LockedAction<T> action) throws BeerNotFoundException, BeerStockExceededException {
+        while (true) {
+            Held held = heldByBeer.computeIfAbsent(beerId, id -> new Held());
+            synchronized (held) {
+                if (held.retired) {
+                    continue;
+                }
+                try {
+                    return action.apply(held);
+                } finally {
+                    retireIfEmpty(beerId, held);
+                }
+            }
+        }
+    }
+
+    private void retireIfEmpty(Long beerId, Held held) {
+        if (held.units == 0) {
+            held.retired = true;
+            heldByBeer.remove(beerId, held);
+        }
+    }
+
+    @FunctionalInterface
+    public interface HeldAction<T> {
+
+        T apply(int held) throws BeerNotFoundException, BeerStockExceededException;
+    }
+
+    @FunctionalInterface
+    public interface StockReader {
+
+        int read() throws BeerNotFoundException;
+    }
+
+    @FunctionalInterface
+    private interface LockedAction<T> {
+
+        T apply(Held held) throws BeerNotFoundException, BeerStockExceededException;
+    }
+
+    private static final class Held {
+
+        private int units;
+        private boolean retired;
+    }
+}
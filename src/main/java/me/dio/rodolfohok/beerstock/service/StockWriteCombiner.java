@@ -0,0 +1,266 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import me.dio.rodolfohok.beerstock.outbox.StockChangeOutbox;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.routing.ReadYourWrites;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in write combining for stock mutations. Increments and decrements of the same beer are queued
+ * for a short window (or until a batch fills up) and then evaluated in arrival order against the
+ * current quantity, so every caller still gets its own accept/reject decision, while the accepted
+ * ones are persisted with a single UPDATE. A decrement is rejected if it would take units held by
+ * reservations, unless it is a reservation's own commit; holds on the beer wait for the flush. Callers block until that UPDATE commits, or give up after
+ * the join timeout if the flush never completes them.
+ * <p>
+ * A beer's queue only lives while it has mutations: once a flush leaves it empty it is retired and
+ * removed, and a caller that still finds it retired creates a new one. At most one live queue per
+ * beer exists at a time, so two flushes never write the same beer concurrently.
+ */
+@Component
+public class StockWriteCombiner {
+
+    private static final int RETIRED = -1;
+
+    private final BeerRepository beerRepository;
+    private final StockChangeOutbox stockChangeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final StockHolds stockHolds;
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final long joinTimeoutMillis;
+    private final ConcurrentMap<Long, MutationQueue> queues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flushExecutor;
+
+    public StockWriteCombiner(BeerRepository beerRepository,
+                              StockChangeOutbox stockChangeOutbox,
+                              PlatformTransactionManager transactionManager,
+                              StockHolds stockHolds,
+                              ObjectProvider<ReadYourWrites> readYourWrites,
+                              @Value("${beerstock.stock.write-combining.enabled:false}") boolean enabled,
+                              @Value("${beerstock.stock.write-combining.window-millis:5}") long windowMillis,
+                              @Value("${beerstock.stock.write-combining.max-batch-size:64}") int maxBatchSize,
+                              @Value("${beerstock.stock.write-combining.flush-threads:4}") int flushThreads,
+                              @Value("${beerstock.stock.write-combining.join-timeout-millis:30000}") long joinTimeoutMillis) {
+        this.beerRepository = beerRepository;
+        this.stockChangeOutbox = stockChangeOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockHolds = stockHolds;
+        this.readYourWrites = readYourWrites;
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.joinTimeoutMillis = joinTimeoutMillis;
+        this.flushExecutor = enabled ? Executors.newScheduledThreadPool(flushThreads) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a stock change for the given beer and waits for the combined write that includes it.
+     * A positive delta increments the stock and a negative one decrements it. The write commits on a
+     * flush thread, which has no client bound, so it is recorded for the caller's client here.
+     */
+    public BeerDTO apply(Long id, int delta) throws BeerNotFoundException, BeerStockExceededException {
+        return apply(id, delta, false);
+    }
+
+    /**
+     * Like {@link #apply(Long, int)}, but a decrement may take units held by reservations when
+     * {@code allowHeld}, which only a reservation's commit passes.
+     */
+    public BeerDTO apply(Long id, int delta, boolean allowHeld) throws BeerNotFoundException, BeerStockExceededException {
+        try {
+            BeerDTO beerDTO = submit(id, delta, allowHeld).orTimeout(joinTimeoutMillis, TimeUnit.MILLISECONDS).join();
+            readYourWrites.ifAvailable(ReadYourWrites::recordWrite);
+            return beerDTO;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BeerNotFoundException) {
+                throw (BeerNotFoundException) cause;
+            }
+            if (cause instanceof BeerStockExceededException) {
+                throw (BeerStockExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    CompletableFuture<BeerDTO> submit(Long id, int delta) {
+        return submit(id, delta, false);
+    }
+
+    CompletableFuture<BeerDTO> submit(Long id, int delta, boolean allowHeld) {
+        if (!enabled) {
+            throw new IllegalStateException("Stock write combining is disabled");
+        }
+        StockMutation mutation = new StockMutation(delta, allowHeld);
+        MutationQueue queue;
+        int size;
+        while (true) {
+            queue = queues.computeIfAbsent(id, MutationQueue::new);
+            size = queue.size.get();
+            if (size == RETIRED) {
+                queues.remove(id, queue);
+            } else if (queue.size.compareAndSet(size, size + 1)) {
+                break;
+            }
+        }
+        // the slot is taken before the mutation is added, so a queue with a slot taken is never retired
+        queue.pending.add(mutation);
+        MutationQueue flushed = queue;
+        if (size + 1 >= maxBatchSize) {
+            flushExecutor.execute(() -> flush(flushed));
+        } else if (queue.flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.schedule(() -> flush(flushed), windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return mutation.result;
+    }
+
+    private void flush(MutationQueue queue) {
+        synchronized (queue) {
+            queue.flushScheduled.set(false);
+            List<StockMutation> batch = new ArrayList<>();
+            StockMutation mutation;
+            while ((mutation = queue.pending.poll()) != null) {
+                queue.size.decrementAndGet();
+                batch.add(mutation);
+            }
+            if (!batch.isEmpty()) {
+                write(queue.beerId, batch);
+            }
+            if (queue.size.compareAndSet(0, RETIRED)) {
+                queues.remove(queue.beerId, queue);
+            }
+        }
+    }
+
+    int queuedBeers() {
+        return queues.size();
+    }
+
+    private void write(Long id, List<StockMutation> batch) {
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        try {
+            // no hold on the beer is placed or released while the batch is checked against them
+            stockHolds.guard(id, held -> {
+                transactionTemplate.executeWithoutResult(status -> writeBatch(id, batch, held, completions));
+                return null;
+            });
+        } catch (Throwable e) {
+            // errors too, or every caller in the batch would wait for its result until the timeout
+            batch.forEach(mutation -> mutation.result.completeExceptionally(e));
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            return;
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    private void writeBatch(Long id, List<StockMutation> batch, int held, List<Runnable> completions) {
+        Optional<Beer> optBeer = beerRepository.findById(id);
+        if (optBeer.isEmpty()) {
+            BeerNotFoundException notFound = new BeerNotFoundException(id);
+            batch.forEach(mutation -> completions.add(() -> mutation.result.completeExceptionally(notFound)));
+            return;
+        }
+        Beer beer = optBeer.get();
+        int initialQuantity = beer.getQuantity();
+        int quantity = initialQuantity;
+        int heldLeft = held;
+        for (StockMutation mutation : batch) {
+            int quantityAfterMutation = quantity + mutation.delta;
+            int floor = mutation.delta < 0 && !mutation.allowHeld ? heldLeft : 0;
+            if (quantityAfterMutation < floor || quantityAfterMutation > beer.getMax()) {
+                BeerStockExceededException exceeded = new BeerStockExceededException(id, Math.abs(mutation.delta));
+                completions.add(() -> mutation.result.completeExceptionally(exceeded));
+                continue;
+            }
+            quantity = quantityAfterMutation;
+            if (mutation.allowHeld && mutation.delta < 0) {
+                // a commit takes its own held units, which stay held until it returns
+                heldLeft = Math.max(0, heldLeft + mutation.delta);
+            }
+            if (mutation.delta != 0) {
+                stockChangeOutbox.record(beer, mutation.delta > 0 ? StockEventType.INCREMENTED : StockEventType.DECREMENTED,
+                        mutation.delta, quantity);
+            }
+            BeerDTO beerAfterMutation = beerMapper.toDTO(beer);
+            beerAfterMutation.setQuantity(quantity);
+            completions.add(() -> mutation.result.complete(beerAfterMutation));
+        }
+        if (quantity != initialQuantity) {
+            beer.setQuantity(quantity);
+            beerRepository.save(beer);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+    }
+
+    private static final class MutationQueue {
+
+        private final Long beerId;
+        private final Queue<StockMutation> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+        private MutationQueue(Long beerId) {
+            this.beerId = beerId;
+        }
+    }
+
+    private static final class StockMutation {
+
+        private final int delta;
+        private final boolean allowHeld;
+        private final CompletableFuture<BeerDTO> result = new CompletableFuture<>();
+
+        private StockMutation(int delta, boolean allowHeld) {
+            this.delta = delta;
+            this.allowHeld = allowHeld;
+        }
+    }
+}
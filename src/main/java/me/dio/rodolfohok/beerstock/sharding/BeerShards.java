@@ -0,0 +1,153 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Directory of the beer shards. A beer lives on shard {@code id mod count}, and each shard hands out
+ * only ids of its own residue, so a beer is created on the shard its name hashes to and its id
+ * points back there. Looking a beer up by name hashes the name again, which keeps the directory
+ * stateless and makes the per-shard unique constraint on the name a global one.
+ * <p>
+ * Work runs on a shard by pinning the shard to the thread, and a transaction stays on the shard its
+ * first beer statement was routed to. Without sharding there is a single shard and pinning has no
+ * effect.
+ */
+@Component
+public class BeerShards {
+
+    private final int count;
+    private final ThreadLocal<Integer> pinned = new ThreadLocal<>();
+    private final ExecutorService scatterExecutor;
+
+    public BeerShards(@Value("${beerstock.sharding.enabled:false}") boolean enabled,
+                      @Value("${beerstock.sharding.shards:1}") int shards) {
+        this.count = enabled ? shards : 1;
+        this.scatterExecutor = count > 1 ? Executors.newFixedThreadPool(count, runnable -> {
+            Thread thread = new Thread(runnable, "beer-shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public List<Integer> all() {
+        return IntStream.range(0, count).boxed().collect(Collectors.toUnmodifiableList());
+    }
+
+    public int shardOfId(long id) {
+        return (int) Math.floorMod(id, (long) count);
+    }
+
+    public int shardOfName(String name) {
+        return Math.floorMod(name.hashCode(), count);
+    }
+
+    public <K> Map<Integer, List<K>> groupByShard(Collection<K> keys, Function<K, Integer> shardOf) {
+        return keys.stream().collect(Collectors.groupingBy(shardOf, TreeMap::new, Collectors.toList()));
+    }
+
+    public Map<Integer, List<Long>> groupIdsByShard(Collection<Long> ids) {
+        return groupByShard(ids, this::shardOfId);
+    }
+
+    /**
+     * The shard pinned to this thread or to its transaction, {@code null} when there is none.
+     */
+    public Integer pinned() {
+        Integer shard = pinned.get();
+        return shard != null ? shard : (Integer) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /**
+     * Keeps the current transaction on {@code shard} until it completes.
+     */
+    public void pinTransaction(int shard) {
+        TransactionSynchronizationManager.bindResource(this, shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BeerShards.this);
+            }
+        });
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = pinned.get();
+        pinned.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                pinned.remove();
+            } else {
+                pinned.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} on every shard in turn, on the calling thread.
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            onShard(shard, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code work} on the given shards in parallel, each on its own thread so that no
+     * transaction or connection of the caller is shared, and returns the results in shard order.
+     */
+    public <T> List<T> scatter(Collection<Integer> shards, IntFunction<T> work) {
+        if (scatterExecutor == null || shards.size() == 1) {
+            List<T> results = new ArrayList<>(shards.size());
+            shards.forEach(shard -> results.add(onShard(shard, () -> work.apply(shard))));
+            return results;
+        }
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> onShard(shard, () -> work.apply(shard)), scatterExecutor))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+}
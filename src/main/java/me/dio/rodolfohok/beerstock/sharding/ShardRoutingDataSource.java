@@ -0,0 +1,54 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each connection to the shard pinned to the thread or its transaction, and to shard 0, which
+ * also holds everything that is not sharded, when none is. As with read/write routing the shard is
+ * only known once the first statement runs, so the datasource has to sit behind a
+ * {@link LazyConnectionDataSourceProxy}; {@link #lazy()} returns one.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+    private final BeerShards beerShards;
+    private final Counter[] routed;
+
+    public ShardRoutingDataSource(List<DataSource> shards, BeerShards beerShards, MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.beerShards = beerShards;
+        this.routed = new Counter[shards.size()];
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+            routed[shard] = meterRegistry.counter("beerstock.datasource.shard.routed", "shard", String.valueOf(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    public DataSource lazy() {
+        return new LazyConnectionDataSourceProxy(this);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = beerShards.pinned();
+        int target = shard != null ? shard : 0;
+        routed[target].increment();
+        return target;
+    }
+}
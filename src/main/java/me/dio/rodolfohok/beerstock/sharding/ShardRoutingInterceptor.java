@@ -0,0 +1,218 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Routes repository calls to shards. Calls keyed by a beer id or name, or by a beer, go to the shard
+ * of the key, and calls keyed by several ids or names are split by shard. Everything else is
+ * scattered to every shard in parallel and gathered: lists are concatenated, beers in id order,
+ * pages and paged lists are cut from the merged rows, and counts are summed. Beers can only be
+ * sorted by id across shards, so any other sort is rejected rather than silently ignored.
+ * <p>
+ * A transaction stays on one shard: the first keyed call pins it, and a call that would leave the
+ * pinned shard fails instead of silently reading or writing the wrong database.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final Set<String> KEYED_BY_ID = Set.of("findById", "existsById", "getById", "getOne", "deleteById", "restore");
+    private static final Set<String> KEYED_BY_NAME = Set.of("findByName", "purgeDeletedByName");
+    private static final Set<String> KEYED_BY_BEER = Set.of("save", "saveAndFlush", "delete");
+    private static final Set<String> KEYED_BY_IDS = Set.of("findAllById", "markDeleted", "deleteAllById", "deleteAllByIdInBatch");
+    private static final Set<String> KEYED_BY_NAMES = Set.of("findByNameIn");
+
+    private final BeerShards beerShards;
+    private final boolean keyedByBeer;
+
+    /**
+     * @param keyedByBeer whether the repository holds beers and its calls can be keyed, otherwise
+     *                    every call runs on the pinned shard or on all of them
+     */
+    public ShardRoutingInterceptor(BeerShards beerShards, boolean keyedByBeer) {
+        this.beerShards = beerShards;
+        this.keyedByBeer = keyedByBeer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArguments();
+        Map<Integer, Object[]> calls = keyedByBeer ? route(method.getName(), args) : null;
+        Integer pinned = beerShards.pinned();
+        if (pinned != null) {
+            if (calls != null && !calls.keySet().equals(Set.of(pinned))) {
+                throw new IllegalStateException(String.format("%s needs shards %s but runs on shard %d",
+                        method.getName(), calls.keySet(), pinned));
+            }
+            return invocation.proceed();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (calls == null || calls.size() != 1) {
+                throw new IllegalStateException(method.getName() + " needs several shards but runs in a transaction");
+            }
+            beerShards.pinTransaction(calls.keySet().iterator().next());
+            return invocation.proceed();
+        }
+        if (calls != null && calls.size() == 1) {
+            return beerShards.onShard(calls.keySet().iterator().next(), () -> call(invocation.getThis(), method, args));
+        }
+        Pageable pageable = pageable(args);
+        Comparator<Object> order = keyedByBeer ? beerOrder(method, sort(args, pageable)) : null;
+        Collection<Integer> shards = calls != null ? calls.keySet() : beerShards.all();
+        List<Object> results = beerShards.scatter(shards,
+                shard -> call(invocation.getThis(), method, calls != null ? calls.get(shard) : unpaged(args, pageable)));
+        return gather(method, pageable, order, results);
+    }
+
+    private Map<Integer, Object[]> route(String method, Object[] args) {
+        if (args.length == 0 || args[0] == null) {
+            return null;
+        }
+        if (KEYED_BY_ID.contains(method)) {
+            return Map.of(beerShards.shardOfId((Long) args[0]), args);
+        }
+        if (KEYED_BY_NAME.contains(method)) {
+            return Map.of(beerShards.shardOfName((String) args[0]), args);
+        }
+        if (KEYED_BY_BEER.contains(method) && args[0] instanceof Beer) {
+            Beer beer = (Beer) args[0];
+            return Map.of(beer.getId() != null ? beerShards.shardOfId(beer.getId()) : beerShards.shardOfName(beer.getName()), args);
+        }
+        if (KEYED_BY_IDS.contains(method)) {
+            return split(args, beerShards::shardOfId);
+        }
+        if (KEYED_BY_NAMES.contains(method)) {
+            return split(args, beerShards::shardOfName);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> Map<Integer, Object[]> split(Object[] args, Function<K, Integer> shardOf) {
+        Collection<K> keys = new ArrayList<>();
+        ((Iterable<K>) args[0]).forEach(keys::add);
+        if (keys.isEmpty()) {
+            return Map.of(0, args);
+        }
+        return beerShards.groupByShard(keys, shardOf).entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, group -> {
+            Object[] shardArgs = args.clone();
+            shardArgs[0] = group.getValue();
+            return shardArgs;
+        }));
+    }
+
+    private static Pageable pageable(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Pageable && ((Pageable) arg).isPaged()) {
+                return (Pageable) arg;
+            }
+        }
+        return null;
+    }
+
+    private static Sort sort(Object[] args, Pageable pageable) {
+        if (pageable != null) {
+            return pageable.getSort();
+        }
+        for (Object arg : args) {
+            if (arg instanceof Sort) {
+                return (Sort) arg;
+            }
+        }
+        return Sort.unsorted();
+    }
+
+    private static Comparator<Object> beerOrder(Method method, Sort sort) {
+        Comparator<Object> byId = Comparator.comparing(row -> ((Beer) row).getId());
+        if (sort.isUnsorted()) {
+            return byId;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !orders.get(0).getProperty().equals("id")) {
+            throw new UnsupportedOperationException(String.format("%s cannot be sorted by %s across shards, only by id",
+                    method.getName(), sort));
+        }
+        return orders.get(0).isAscending() ? byId : byId.reversed();
+    }
+
+    // every shard may hold the whole requested page, so each one is asked for all rows up to its end
+    private static Object[] unpaged(Object[] args, Pageable pageable) {
+        if (pageable == null) {
+            return args;
+        }
+        Object[] shardArgs = args.clone();
+        for (int i = 0; i < shardArgs.length; i++) {
+            if (shardArgs[i] == pageable) {
+                shardArgs[i] = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+            }
+        }
+        return shardArgs;
+    }
+
+    private static Object call(Object repository, Method method, Object[] args) {
+        try {
+            return AopUtils.invokeJoinpointUsingReflection(repository, method, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    private static Object gather(Method method, Pageable pageable, Comparator<Object> order, List<Object> results) {
+        Class<?> type = method.getReturnType();
+        if (type == void.class) {
+            return null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return results.stream().mapToInt(result -> (Integer) result).sum();
+        }
+        if (type == long.class || type == Long.class) {
+            return results.stream().mapToLong(result -> (Long) result).sum();
+        }
+        if (Page.class.isAssignableFrom(type)) {
+            List<Object> rows = new ArrayList<>();
+            results.forEach(result -> rows.addAll(((Page<?>) result).getContent()));
+            long total = results.stream().mapToLong(result -> ((Page<?>) result).getTotalElements()).sum();
+            return new PageImpl<>(slice(rows, pageable, order), pageable != null ? pageable : Pageable.unpaged(), total);
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            List<Object> rows = new ArrayList<>();
+            results.forEach(result -> ((Iterable<?>) result).forEach(rows::add));
+            return slice(rows, pageable, order);
+        }
+        throw new UnsupportedOperationException(method + " cannot be gathered across shards");
+    }
+
+    private static List<Object> slice(List<Object> rows, Pageable pageable, Comparator<Object> order) {
+        if (order != null && !rows.isEmpty() && rows.get(0) instanceof Beer) {
+            rows.sort(order);
+        }
+        if (pageable == null) {
+            return rows;
+        }
+        return rows.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,52 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Prepares the shards once Hibernate has created the schema on shard 0: the schema is copied with
+ * {@code SCRIPT NODATA} to the other shards that have no tables yet, and a shard that already has
+ * them is left as it is, so its data survives restarts. The identity of the beer table on every shard is
+ * set to step by the shard count from the shard's own residue, so that each shard only hands out
+ * ids that map back to it.
+ */
+@Slf4j
+public class ShardSchemaInitializer {
+
+    private final List<DataSource> shards;
+
+    public ShardSchemaInitializer(List<DataSource> shards) {
+        this.shards = shards;
+    }
+
+    public void initialize() {
+        JdbcTemplate home = new JdbcTemplate(shards.get(0));
+        List<String> script = home.queryForList("script nodata", String.class);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+            if (shard > 0 && isEmpty(jdbcTemplate)) {
+                script.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(jdbcTemplate::execute);
+            }
+            String sequence = jdbcTemplate.queryForObject("select sequence_name from information_schema.columns "
+                    + "where table_name = 'BEER' and column_name = 'ID'", String.class);
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from beer", Long.class);
+            jdbcTemplate.execute(String.format("alter sequence %s restart with %d increment by %d",
+                    sequence, firstId(maxId == null ? 0 : maxId, shard), shards.size()));
+        }
+        log.info("Prepared {} beer shards", shards.size());
+    }
+
+    private static boolean isEmpty(JdbcTemplate jdbcTemplate) {
+        Integer tables = jdbcTemplate.queryForObject("select count(*) from information_schema.tables "
+                + "where table_schema = schema()", Integer.class);
+        return tables == null || tables == 0;
+    }
+
+    private long firstId(long maxId, int shard) {
+        long next = maxId + 1;
+        return next + Math.floorMod(shard - next, (long) shards.size());
+    }
+}
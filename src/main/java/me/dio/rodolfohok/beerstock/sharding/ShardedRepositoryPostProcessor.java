@@ -0,0 +1,40 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Puts a {@link ShardRoutingInterceptor} in front of the repositories of sharded tables: beer
+ * calls are routed by their keys, and outbox events, which are written on the shard of their beer,
+ * are read from the pinned shard or gathered from all of them.
+ */
+public class ShardedRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<BeerShards> beerShards;
+
+    public ShardedRepositoryPostProcessor(ObjectProvider<BeerShards> beerShards) {
+        this.beerShards = beerShards;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof BeerRepository) {
+            return shard(bean, BeerRepository.class, true);
+        }
+        if (bean instanceof StockOutboxEventRepository) {
+            return shard(bean, StockOutboxEventRepository.class, false);
+        }
+        return bean;
+    }
+
+    private Object shard(Object repository, Class<?> repositoryInterface, boolean keyedByBeer) {
+        ProxyFactory factory = new ProxyFactory();
+        factory.setTarget(repository);
+        factory.addInterface(repositoryInterface);
+        factory.addAdvice(new ShardRoutingInterceptor(beerShards.getObject(), keyedByBeer));
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,37 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} bean in a datasource-proxy that notifies all
+ * {@link QueryExecutionListener} beans around each JDBC statement. Datasources that only delegate
+ * or route to other datasource beans are left alone, since their statements already run through
+ * a wrapped target and would otherwise be counted twice.
+ */
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryExecutionListener> listeners;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource || bean instanceof DelegatingDataSource
+                || bean instanceof AbstractRoutingDataSource) {
+            return bean;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, (DataSource) bean);
+        listeners.orderedStream().forEach(builder::listener);
+        return builder.build();
+    }
+}
@@ -0,0 +1,28 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one line per span to the {@code beerstock.tracing} logger, so spans can be grepped by
+ * trace id or shipped by whatever already collects the application log.
+ */
+public class LoggingSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger("beerstock.tracing");
+
+    @Override
+    public void export(Span span) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        log.info("span trace={} id={} parent={} kind={} name=\"{}\" start={} duration_us={} status={} attributes={}",
+                span.getTraceId(), span.getSpanId(), span.getParentSpanId() == null ? "-" : span.getParentSpanId(),
+                span.getKind(), span.getName(), span.getStartTime(),
+                TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()),
+                span.getError() == null ? "OK" : "ERROR " + span.getError().getClass().getSimpleName(),
+                span.getAttributes());
+    }
+}
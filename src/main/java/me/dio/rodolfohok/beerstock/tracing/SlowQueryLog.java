@@ -0,0 +1,60 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs every JDBC statement that takes at least the threshold, with its SQL, the shape of its
+ * parameters and its duration. Only parameter types are logged, never values, since they can hold
+ * customer data.
+ */
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("beerstock.slow-query");
+
+    private final long thresholdMillis;
+
+    public SlowQueryLog(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            log.warn("Slow query took {} ms: {} parameters={}", execInfo.getElapsedTime(), queryInfo.getQuery(),
+                    parameterShape(queryInfo.getParametersList()));
+        }
+    }
+
+    static String parameterShape(List<List<ParameterSetOperation>> parametersList) {
+        if (parametersList.isEmpty()) {
+            return "()";
+        }
+        String shape = parametersList.get(0).stream()
+                .map(SlowQueryLog::parameterType)
+                .collect(Collectors.joining(", ", "(", ")"));
+        return parametersList.size() == 1 ? shape : parametersList.size() + " x " + shape;
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+        Object[] args = operation.getArgs();
+        return args.length < 2 || args[1] == null ? "null" : args[1].getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,101 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed operation within a trace. Spans are opened with {@link Tracer#start} and must be closed
+ * on the thread that opened them, which makes the enclosing span current again.
+ */
+public final class Span implements AutoCloseable {
+
+    private final Tracer tracer;
+    private final Span enclosing;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final Instant startTime;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private String name;
+    private Throwable error;
+    private long durationNanos = -1;
+
+    Span(Tracer tracer, Span enclosing, String traceId, String spanId, String parentSpanId, String name,
+         SpanKind kind, Instant startTime, long startNanos) {
+        this.tracer = tracer;
+        this.enclosing = enclosing;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startTime = startTime;
+        this.startNanos = startNanos;
+    }
+
+    public Span attribute(String key, Object value) {
+        attributes.put(key, value);
+        return this;
+    }
+
+    public Span rename(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public void recordError(Throwable error) {
+        this.error = error;
+    }
+
+    @Override
+    public void close() {
+        if (durationNanos < 0) {
+            durationNanos = System.nanoTime() - startNanos;
+            tracer.end(this);
+        }
+    }
+
+    Span getEnclosing() {
+        return enclosing;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SpanKind getKind() {
+        return kind;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+}
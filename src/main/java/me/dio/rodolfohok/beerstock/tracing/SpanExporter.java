@@ -0,0 +1,9 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+/**
+ * Receives every span once it has ended, on the thread that ended it.
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+}
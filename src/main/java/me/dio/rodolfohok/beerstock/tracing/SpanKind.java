@@ -0,0 +1,7 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+public enum SpanKind {
+    SERVER,
+    INTERNAL,
+    CLIENT
+}
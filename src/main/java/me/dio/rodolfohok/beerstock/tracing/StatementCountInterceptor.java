@@ -0,0 +1,52 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.QueryType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many statements of each type every request issued, as the
+ * {@code beerstock.jdbc.statements} distribution summary tagged with the endpoint.
+ */
+public class StatementCountInterceptor implements HandlerInterceptor {
+
+    private static final String COUNTS_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".counts";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountInterceptor(StatementCounter statementCounter, MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(COUNTS_ATTRIBUTE, statementCounter.start());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        StatementCounts counts = (StatementCounts) request.getAttribute(COUNTS_ATTRIBUTE);
+        if (counts == null) {
+            return;
+        }
+        counts.close();
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = route == null ? "UNKNOWN" : route.toString();
+        for (QueryType type : QueryType.values()) {
+            DistributionSummary.builder("beerstock.jdbc.statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry)
+                    .record(counts.get(type));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Counts JDBC statements per thread, by type, for as long as a {@link StatementCounts} scope is
+ * open. Backs the per-endpoint statement metrics and lets tests pin the statement budget of an
+ * operation:
+ * <pre>
+ * try (StatementCounts counts = statementCounter.start()) {
+ *     beerService.increment(id, 5);
+ *     assertThat(counts.getTotal(), lessThanOrEqualTo(4));
+ * }
+ * </pre>
+ * Statements run on other threads, such as the write combiner's flush threads, are not counted.
+ */
+public class StatementCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<StatementCounts> current = new ThreadLocal<>();
+
+    public StatementCounts start() {
+        StatementCounts counts = new StatementCounts(this, current.get());
+        current.set(counts);
+        return counts;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementCounts counts = current.get();
+        if (counts != null) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                counts.increment(QueryUtils.getQueryType(queryInfo.getQuery()));
+            }
+        }
+    }
+
+    void end(StatementCounts counts) {
+        if (current.get() == counts) {
+            if (counts.getEnclosing() == null) {
+                current.remove();
+            } else {
+                current.set(counts.getEnclosing());
+            }
+        }
+    }
+}
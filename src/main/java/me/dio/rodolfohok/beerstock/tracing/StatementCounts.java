@@ -0,0 +1,66 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.QueryType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Statements executed on one thread while this scope was open, including those of nested scopes.
+ * A JDBC batch counts as one statement. Closing the scope makes the enclosing one current again.
+ */
+public final class StatementCounts implements AutoCloseable {
+
+    private final StatementCounter counter;
+    private final StatementCounts enclosing;
+    private final Map<QueryType, Integer> counts = new EnumMap<>(QueryType.class);
+
+    StatementCounts(StatementCounter counter, StatementCounts enclosing) {
+        this.counter = counter;
+        this.enclosing = enclosing;
+    }
+
+    void increment(QueryType type) {
+        for (StatementCounts scope = this; scope != null; scope = scope.enclosing) {
+            scope.counts.merge(type, 1, Integer::sum);
+        }
+    }
+
+    StatementCounts getEnclosing() {
+        return enclosing;
+    }
+
+    public int get(QueryType type) {
+        return counts.getOrDefault(type, 0);
+    }
+
+    public int getSelects() {
+        return get(QueryType.SELECT);
+    }
+
+    public int getInserts() {
+        return get(QueryType.INSERT);
+    }
+
+    public int getUpdates() {
+        return get(QueryType.UPDATE);
+    }
+
+    public int getDeletes() {
+        return get(QueryType.DELETE);
+    }
+
+    public int getTotal() {
+        return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public void close() {
+        counter.end(this);
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCounts" + counts;
+    }
+}
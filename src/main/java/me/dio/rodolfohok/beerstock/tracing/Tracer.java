@@ -0,0 +1,74 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process tracer. The current span is kept per thread, so a span started while another
+ * one is open becomes its child; ids follow the W3C trace context sizes so they can be correlated
+ * with an incoming {@code traceparent} header.
+ */
+public class Tracer {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}");
+
+    private final SpanExporter exporter;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+
+    public Tracer(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    public Span start(String name, SpanKind kind) {
+        Span parent = current.get();
+        return parent == null
+                ? open(null, newId(16), null, name, kind)
+                : open(parent, parent.getTraceId(), parent.getSpanId(), name, kind);
+    }
+
+    /**
+     * Starts a span that continues the trace of a W3C {@code traceparent} header, or a new trace
+     * if the header is missing or malformed.
+     */
+    public Span startRemoteChild(String traceparent, String name, SpanKind kind) {
+        Matcher matcher = traceparent == null ? null : TRACEPARENT.matcher(traceparent);
+        if (matcher == null || !matcher.matches()) {
+            return start(name, kind);
+        }
+        return open(current.get(), matcher.group(1), matcher.group(2), name, kind);
+    }
+
+    public Optional<Span> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    void end(Span span) {
+        if (current.get() == span) {
+            if (span.getEnclosing() == null) {
+                current.remove();
+            } else {
+                current.set(span.getEnclosing());
+            }
+        }
+        exporter.export(span);
+    }
+
+    private Span open(Span enclosing, String traceId, String parentSpanId, String name, SpanKind kind) {
+        Span span = new Span(this, enclosing, traceId, newId(8), parentSpanId, name, kind, Instant.now(), System.nanoTime());
+        current.set(span);
+        return span;
+    }
+
+    private static String newId(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder id = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            int value = random.nextInt(256);
+            id.append(Character.forDigit(value >>> 4, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a span around every call into the REST controllers, {@code BeerService} and the Spring
+ * Data repositories, named after the declaring bean and method.
+ */
+@Aspect
+public class TracingAspect {
+
+    private static final String REPOSITORY_PACKAGE = "me.dio.rodolfohok.beerstock.repository";
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(me.dio.rodolfohok.beerstock.controller..*) && @within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, joinPoint.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    @Around("execution(public * me.dio.rodolfohok.beerstock.service.BeerService.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "BeerService");
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), TracingAspect::repositoryName));
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String owner) throws Throwable {
+        try (Span span = tracer.start(owner + "." + joinPoint.getSignature().getName(), SpanKind.INTERNAL)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                span.recordError(e);
+                throw e;
+            }
+        }
+    }
+
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
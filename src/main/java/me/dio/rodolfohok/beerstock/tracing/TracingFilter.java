@@ -0,0 +1,47 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Opens the root span of every HTTP request, continuing the caller's trace when it sends a
+ * {@code traceparent} header. The span is renamed after the matched route once the request has
+ * been handled, so spans of the same endpoint share a name.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACEPARENT_HEADER = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (Span span = tracer.startRemoteChild(request.getHeader(TRACEPARENT_HEADER),
+                "HTTP " + request.getMethod(), SpanKind.SERVER)) {
+            span.attribute("http.method", request.getMethod()).attribute("http.target", request.getRequestURI());
+            try {
+                filterChain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                span.recordError(e);
+                throw e;
+            } finally {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (route != null) {
+                    span.rename("HTTP " + request.getMethod() + " " + route).attribute("http.route", route);
+                }
+                span.attribute("http.status_code", response.getStatus());
+            }
+        }
+    }
+}
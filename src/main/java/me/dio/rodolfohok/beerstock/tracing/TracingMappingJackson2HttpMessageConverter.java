@@ -0,0 +1,30 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Times the JSON serialization of response bodies, which happens after the controller span ended.
+ */
+public class TracingMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Tracer tracer;
+
+    public TracingMappingJackson2HttpMessageConverter(ObjectMapper objectMapper, Tracer tracer) {
+        super(objectMapper);
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try (Span span = tracer.start("serialize " + object.getClass().getSimpleName(), SpanKind.INTERNAL)) {
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+}
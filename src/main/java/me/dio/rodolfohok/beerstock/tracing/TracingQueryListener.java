@@ -0,0 +1,52 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Opens a client span around every JDBC statement executed through the proxied data source.
+ */
+public class TracingQueryListener implements QueryExecutionListener {
+
+    private static final String SPAN_KEY = TracingQueryListener.class.getName();
+
+    private final Tracer tracer;
+
+    public TracingQueryListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        Span span = tracer.start("SQL " + operation(sql), SpanKind.CLIENT).attribute("db.statement", sql);
+        if (execInfo.isBatch()) {
+            span.attribute("db.batch_size", execInfo.getBatchSize());
+        }
+        execInfo.addCustomValue(SPAN_KEY, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN_KEY, Span.class);
+        if (span != null) {
+            if (execInfo.getThrowable() != null) {
+                span.recordError(execInfo.getThrowable());
+            }
+            span.close();
+        }
+    }
+
+    private static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "STATEMENT" : trimmed.substring(0, end).toUpperCase();
+    }
+}
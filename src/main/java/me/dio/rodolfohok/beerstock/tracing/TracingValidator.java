@@ -0,0 +1,39 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Times bean validation of {@code @Valid} request bodies.
+ */
+public class TracingValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+    private final Tracer tracer;
+
+    public TracingValidator(SmartValidator delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        try (Span span = tracer.start("validate " + target.getClass().getSimpleName(), SpanKind.INTERNAL)) {
+            delegate.validate(target, errors);
+            span.attribute("validation.errors", errors.getErrorCount());
+        }
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        try (Span span = tracer.start("validate " + target.getClass().getSimpleName(), SpanKind.INTERNAL)) {
+            delegate.validate(target, errors, validationHints);
+            span.attribute("validation.errors", errors.getErrorCount());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package me.dio.rodolfohok.beerstock;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Starts the application in a separate JVM with the default configuration and with the
+ * fast-startup profile, and reports startup time and peak RSS of each. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTest {
+
+  private static final Pattern STARTUP_REPORT = Pattern.compile("Startup finished in (\\d+) ms, peak RSS (\\S+) kB");
+  private static final int RUNS = 3;
+
+  @Test
+  void compareDefaultAndFastStartup() throws Exception {
+    for (String profile : List.of("default", "fast-startup")) {
+      for (int run = 1; run <= RUNS; run++) {
+        String report = startAndExit(profile);
+        assertThat(report, notNullValue());
+        System.out.printf("%s run %d: %s%n", profile, run, report);
+      }
+    }
+  }
+
+  private String startAndExit(String profile) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.add("-Dspring.profiles.active=" + profile);
+    command.add("-Dbeerstock.startup.exit-on-ready=true");
+    command.add("-Dspring.devtools.restart.enabled=false");
+    command.add("-Dserver.port=0");
+    command.add("-Dgrpc.server.port=-1");
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(BeerstockApplication.class.getName());
+
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    String report = null;
+    try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = output.readLine()) != null) {
+        Matcher matcher = STARTUP_REPORT.matcher(line);
+        if (matcher.find()) {
+          report = matcher.group();
+        }
+      }
+    }
+    process.waitFor(1, TimeUnit.MINUTES);
+    return report;
+  }
+}
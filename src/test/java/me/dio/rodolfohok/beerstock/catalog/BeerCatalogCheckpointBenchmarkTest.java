@@ -0,0 +1,121 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import me.dio.rodolfohok.beerstock.BeerstockApplication;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.replication.ReplicationCodec;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Measures restart-to-ready of the persistent profile with one million beers: a cold restore
+ * from the binary checkpoint into an empty data directory, then a warm restart on the H2 file
+ * that restore produced. For comparison it times {@code BeerService.createBeer} on a sample and
+ * extrapolates to the same row count. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class BeerCatalogCheckpointBenchmarkTest {
+
+  private static final Pattern STARTUP_REPORT = Pattern.compile("Startup finished in (\\d+) ms, peak RSS (\\S+) kB");
+  private static final int ROWS = 1_000_000;
+  private static final int CREATE_BEER_SAMPLE = 20_000;
+
+  @TempDir
+  Path dataDir;
+
+  @Test
+  void restartToReadyWithOneMillionBeers() throws Exception {
+    writeCheckpoint(dataDir.resolve("beer.checkpoint"), ROWS);
+
+    String cold = startAndExit();
+    assertThat(cold, notNullValue());
+    System.out.printf("cold restore from checkpoint, %d rows: %s%n", ROWS, cold);
+
+    String warm = startAndExit();
+    assertThat(warm, notNullValue());
+    System.out.printf("warm restart on the H2 file, %d rows: %s%n", ROWS, warm);
+
+    long createBeerNanos = timeCreateBeer(CREATE_BEER_SAMPLE);
+    System.out.printf("BeerService.createBeer: %d rows in %d ms, about %d s for %d rows%n", CREATE_BEER_SAMPLE,
+        TimeUnit.NANOSECONDS.toMillis(createBeerNanos),
+        TimeUnit.NANOSECONDS.toSeconds(createBeerNanos * (ROWS / CREATE_BEER_SAMPLE)), ROWS);
+  }
+
+  private static void writeCheckpoint(Path file, int rows) throws IOException {
+    BeerType[] types = BeerType.values();
+    try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+      data.writeInt(BeerCatalogCheckpoint.MAGIC);
+      data.writeByte(BeerCatalogCheckpoint.VERSION);
+      data.writeInt(rows);
+      for (int i = 1; i <= rows; i++) {
+        ReplicationCodec.writeBeer(new Beer((long) i, "Beer " + i, "Brand " + (i % 500), 100, i % 100,
+            types[i % types.length]), data);
+      }
+    }
+  }
+
+  private String startAndExit() throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.add("-Dspring.profiles.active=persistent");
+    command.add("-Dbeerstock.data.dir=" + dataDir);
+    command.add("-Dbeerstock.startup.exit-on-ready=true");
+    command.add("-Dbeerstock.outbox.relay.enabled=false");
+    command.add("-Dspring.devtools.restart.enabled=false");
+    command.add("-Dserver.port=0");
+    command.add("-Dgrpc.server.port=0");
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(BeerstockApplication.class.getName());
+
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    String report = null;
+    try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = output.readLine()) != null) {
+        Matcher matcher = STARTUP_REPORT.matcher(line);
+        if (matcher.find()) {
+          report = matcher.group();
+        } else if (line.contains("checkpoint")) {
+          System.out.println(line);
+        }
+      }
+    }
+    process.waitFor(5, TimeUnit.MINUTES);
+    return report;
+  }
+
+  private static long timeCreateBeer(int rows) throws Exception {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+        .run("--server.port=0", "--grpc.server.port=0", "--beerstock.outbox.relay.enabled=false",
+            "--spring.datasource.url=jdbc:h2:mem:create-beer-benchmark;DB_CLOSE_DELAY=-1")) {
+      BeerService beerService = context.getBean(BeerService.class);
+      long start = System.nanoTime();
+      for (int i = 1; i <= rows; i++) {
+        beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Beer " + i).build().toBeerDTO());
+      }
+      return System.nanoTime() - start;
+    }
+  }
+}
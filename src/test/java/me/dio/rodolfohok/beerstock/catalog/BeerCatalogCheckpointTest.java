@@ -0,0 +1,94 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BeerCatalogCheckpointTest {
+
+  private static final String SELECT_BEERS = "select id, name, brand, max, quantity, type from beer order by id";
+
+  @TempDir
+  Path directory;
+
+  private Path file;
+  private BeerCatalogCheckpoint source;
+  private JdbcTemplate sourceJdbc;
+
+  @BeforeEach
+  void setUp() {
+    file = directory.resolve("beer.checkpoint");
+    sourceJdbc = database();
+    source = checkpoint(sourceJdbc);
+  }
+
+  @Test
+  void whenCheckpointIsLoadedIntoAnEmptyDatabaseThenTheBeerTableIsRestored() throws Exception {
+    // given
+    sourceJdbc.update("insert into beer (name, brand, max, quantity, type) values ('Brahma', 'Ambev', 50, 10, 'LAGER')");
+    sourceJdbc.update("insert into beer (name, brand, max, quantity, type) values ('Skol', 'Ambev', 40, 0, 'LAGER')");
+    sourceJdbc.update("insert into beer (name, brand, max, quantity, type) values ('Appia', 'Colorado', 30, 7, 'WEISS')");
+    JdbcTemplate targetJdbc = database();
+    // when
+    source.checkpoint();
+    checkpoint(targetJdbc).run(null);
+    // then
+    assertThat(targetJdbc.queryForList(SELECT_BEERS), is(equalTo(sourceJdbc.queryForList(SELECT_BEERS))));
+    targetJdbc.update("insert into beer (name, brand, max, quantity, type) values ('Bohemia', 'Ambev', 20, 1, 'LAGER')");
+    assertThat(targetJdbc.queryForObject("select max(id) from beer", Long.class), is(4L));
+  }
+
+  @Test
+  void whenDatabaseAlreadyHasBeersThenTheCheckpointIsNotLoaded() throws Exception {
+    // given
+    sourceJdbc.update("insert into beer (name, brand, max, quantity, type) values ('Brahma', 'Ambev', 50, 10, 'LAGER')");
+    source.checkpoint();
+    sourceJdbc.update("update beer set quantity = 25");
+    // when
+    source.run(null);
+    // then
+    List<Map<String, Object>> beers = sourceJdbc.queryForList(SELECT_BEERS);
+    assertThat(beers, hasSize(1));
+    assertThat(beers.get(0).get("QUANTITY"), is(25));
+  }
+
+  @Test
+  void whenFileIsNotACheckpointThenLoadingFails() throws IOException {
+    // given
+    Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+    // then
+    assertThrows(IOException.class, () -> checkpoint(database()).run(null));
+  }
+
+  private BeerCatalogCheckpoint checkpoint(JdbcTemplate jdbcTemplate) {
+    TransactionTemplate transactionTemplate =
+        new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    return new BeerCatalogCheckpoint(jdbcTemplate, transactionTemplate, file, Duration.ofMillis(100), new CatalogVersion());
+  }
+
+  private static JdbcTemplate database() {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table beer (id bigint generated by default as identity primary key, "
+        + "name varchar(255) not null unique, brand varchar(255) not null, max integer not null, "
+        + "quantity integer not null, type varchar(255) not null, deleted_at timestamp, deletion_id varchar(255))");
+    return jdbcTemplate;
+  }
+}
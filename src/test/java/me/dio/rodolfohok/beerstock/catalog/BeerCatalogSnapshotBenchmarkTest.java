@@ -0,0 +1,84 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compares retained heap and GC time of serving lookups from on-heap entities (what the JPA path
+ * keeps alive through the persistence context and mapped DTOs) and from the off-heap snapshot.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class BeerCatalogSnapshotBenchmarkTest {
+
+  private static final int CATALOG_SIZE = 50_000;
+  private static final int LOOKUPS = 2_000_000;
+
+  private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+  @Test
+  void compareHeapAndGcWithOnHeapCatalog() {
+    long baseline = usedHeapAfterGc();
+    Map<String, Beer> onHeapCatalog = new HashMap<>();
+    for (Beer beer : catalog()) {
+      onHeapCatalog.put(beer.getName(), beer);
+    }
+    long onHeapRetained = usedHeapAfterGc() - baseline;
+    long onHeapGcMillis = measureGc(name -> beerMapper.toDTO(onHeapCatalog.get(name)));
+    System.out.printf("on-heap entities: retained %d kB, GC %d ms for %d lookups%n",
+        onHeapRetained / 1024, onHeapGcMillis, LOOKUPS);
+    onHeapCatalog.clear();
+
+    baseline = usedHeapAfterGc();
+    BeerCatalogSnapshot snapshot = BeerCatalogSnapshot.of(catalog());
+    long snapshotRetained = usedHeapAfterGc() - baseline;
+    long snapshotGcMillis = measureGc(name -> snapshot.findByName(name).orElseThrow());
+    System.out.printf("off-heap snapshot: retained %d kB on heap, GC %d ms for %d lookups%n",
+        snapshotRetained / 1024, snapshotGcMillis, LOOKUPS);
+  }
+
+  private List<Beer> catalog() {
+    List<Beer> beers = new ArrayList<>(CATALOG_SIZE);
+    for (long id = 1; id <= CATALOG_SIZE; id++) {
+      beers.add(new Beer(id, "Beer " + id, "Brand " + id % 100, 500, (int) (id % 100),
+          BeerType.values()[(int) (id % BeerType.values().length)]));
+    }
+    return beers;
+  }
+
+  private long measureGc(Function<String, BeerDTO> lookup) {
+    long gcBefore = totalGcMillis();
+    long checksum = 0;
+    for (int i = 0; i < LOOKUPS; i++) {
+      checksum += lookup.apply("Beer " + (i % CATALOG_SIZE + 1)).getQuantity();
+    }
+    if (checksum < 0) {
+      throw new IllegalStateException();
+    }
+    return totalGcMillis() - gcBefore;
+  }
+
+  private long totalGcMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+        .sum();
+  }
+
+  private long usedHeapAfterGc() {
+    System.gc();
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
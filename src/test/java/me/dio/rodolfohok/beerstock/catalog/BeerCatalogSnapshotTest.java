@@ -0,0 +1,74 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BeerCatalogSnapshotTest {
+
+  private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+  @Test
+  void whenBeersArePackedThenEveryOneIsFoundByName() {
+    // given
+    List<Beer> beers = new ArrayList<>();
+    for (long id = 1; id <= 1_000; id++) {
+      beers.add(beerMapper.toModel(BeerDTOBuilder.builder()
+          .id(id)
+          .name("Beer " + id)
+          .brand("Brand " + id % 7)
+          .quantity((int) (id % 50))
+          .type(BeerType.values()[(int) (id % BeerType.values().length)])
+          .build()
+          .toBeerDTO()));
+    }
+    // when
+    BeerCatalogSnapshot snapshot = BeerCatalogSnapshot.of(beers);
+    // then
+    assertThat(snapshot.size(), is(equalTo(beers.size())));
+    for (Beer beer : beers) {
+      assertThat(snapshot.findByName(beer.getName()).orElseThrow(), is(equalTo(beerMapper.toDTO(beer))));
+    }
+  }
+
+  @Test
+  void whenNameIsNotInTheCatalogThenNothingIsFound() {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    BeerCatalogSnapshot snapshot = BeerCatalogSnapshot.of(List.of(beerMapper.toModel(beerDTO)));
+    // then
+    assertThat(snapshot.findByName("Skol").isPresent(), is(false));
+  }
+
+  @Test
+  void whenNamesUseMultibyteCharactersThenTheyAreFound() {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().name("Cerveja Açaí").brand("Cervejaria São Paulo").build().toBeerDTO();
+    // when
+    BeerCatalogSnapshot snapshot = BeerCatalogSnapshot.of(List.of(beerMapper.toModel(beerDTO)));
+    // then
+    assertThat(snapshot.findByName("Cerveja Açaí").orElseThrow(), is(equalTo(beerDTO)));
+    assertThat(snapshot.listAll(), contains(beerDTO));
+  }
+
+  @Test
+  void whenCatalogIsEmptyThenListIsEmpty() {
+    // when
+    BeerCatalogSnapshot snapshot = BeerCatalogSnapshot.of(Collections.emptyList());
+    // then
+    assertThat(snapshot.listAll(), is(empty()));
+    assertThat(snapshot.findByName("Brahma").isPresent(), is(false));
+  }
+}
@@ -0,0 +1,67 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CatalogResponseCacheTest {
+
+  private final CatalogVersion catalogVersion = new CatalogVersion();
+
+  private final CatalogResponseCache cache =
+      new CatalogResponseCache(catalogVersion, new ObjectMapper(), new SimpleMeterRegistry());
+
+  @Test
+  void whenCatalogIsUnchangedThenTheBodyIsRenderedOnce() {
+    // given
+    AtomicInteger renders = new AtomicInteger();
+    // when
+    cache.get("all", () -> List.of(renders.incrementAndGet()));
+    cache.get("all", () -> List.of(renders.incrementAndGet()));
+    // then
+    assertThat(renders.get(), is(1));
+  }
+
+  @Test
+  void whenAWriteLandsWhileAListingIsInFlightThenItsResponseIsNotCached() throws Exception {
+    // given
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch written = new CountDownLatch(1);
+    CompletableFuture<CatalogResponseCache.CachedResponse> inFlight = CompletableFuture.supplyAsync(() ->
+        cache.get("all", () -> {
+          reading.countDown();
+          await(written);
+          return List.of("before the write");
+        }));
+    // when
+    assertThat(reading.await(5, TimeUnit.SECONDS), is(true));
+    catalogVersion.bump();
+    written.countDown();
+    String stale = json(inFlight.get(5, TimeUnit.SECONDS));
+    // then
+    assertThat(stale, is("[\"before the write\"]"));
+    assertThat(json(cache.get("all", () -> List.of("after the write"))), is("[\"after the write\"]"));
+  }
+
+  private static String json(CatalogResponseCache.CachedResponse response) {
+    return new String(response.getJson(), StandardCharsets.UTF_8);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
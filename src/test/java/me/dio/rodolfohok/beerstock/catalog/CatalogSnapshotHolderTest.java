@@ -0,0 +1,59 @@
+package me.dio.rodolfohok.beerstock.catalog;
+
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotHolderTest {
+
+  @Mock
+  private BeerRepository beerRepository;
+
+  private final CatalogVersion catalogVersion = new CatalogVersion();
+
+  private CatalogSnapshotHolder catalogSnapshotHolder;
+
+  @BeforeEach
+  void setUp() {
+    catalogSnapshotHolder = new CatalogSnapshotHolder(beerRepository, catalogVersion, true);
+  }
+
+  @Test
+  void whenRefreshFindsTheSameCatalogThenTheVersionIsKept() {
+    // given
+    when(beerRepository.findAll(Sort.by("id"))).thenReturn(
+        List.of(new Beer(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER)),
+        List.of(new Beer(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER)));
+    // when
+    catalogSnapshotHolder.refresh();
+    catalogSnapshotHolder.refresh();
+    // then
+    assertThat(catalogVersion.current(), is(1L));
+  }
+
+  @Test
+  void whenRefreshFindsAChangedCatalogThenTheVersionIsBumped() {
+    // given
+    when(beerRepository.findAll(Sort.by("id"))).thenReturn(
+        List.of(new Beer(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER)),
+        List.of(new Beer(1L, "Brahma", "Ambev", 50, 9, BeerType.LAGER)));
+    // when
+    catalogSnapshotHolder.refresh();
+    catalogSnapshotHolder.refresh();
+    // then
+    assertThat(catalogVersion.current(), is(2L));
+  }
+}
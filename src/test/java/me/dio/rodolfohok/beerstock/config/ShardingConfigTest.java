@@ -0,0 +1,25 @@
+package me.dio.rodolfohok.beerstock.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardingConfigTest {
+
+  @Test
+  void whenShardingIsCombinedWithASingleDatabaseFeatureThenStartupFails() {
+    // then
+    assertThrows(IllegalStateException.class, () -> new ShardingConfig(true, false, "none"));
+    assertThrows(IllegalStateException.class, () -> new ShardingConfig(false, true, "none"));
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> new ShardingConfig(false, false, "primary"));
+    assertThat(e.getMessage(), containsString("beerstock.replication.role=primary"));
+  }
+
+  @Test
+  void whenShardingRunsAloneThenItIsAccepted() {
+    // then
+    new ShardingConfig(false, false, "none");
+  }
+}
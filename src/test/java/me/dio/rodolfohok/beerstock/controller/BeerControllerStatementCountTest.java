@@ -0,0 +1,81 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.QuantityDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static me.dio.rodolfohok.beerstock.utils.JsonConversionUnit.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:endpoint-statement-count;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+public class BeerControllerStatementCountTest {
+
+  private static final String DECREMENT_ROUTE = "/api/v1/beers/{id}/decrement";
+  private static final String FIND_BY_NAME_ROUTE = "/api/v1/beers/{name}";
+  private static final String LIST_ROUTE = "/api/v1/beers";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  void whenEndpointsAreCalledThenTheirStatementCountsAreRecordedPerType() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Metered").build().toBeerDTO());
+    // when
+    mockMvc.perform(patch("/api/v1/beers/" + beer.getId() + "/decrement")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(QuantityDTO.builder().quantity(1).build())))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/api/v1/beers/Metered")).andExpect(status().isOk());
+    // then: open-in-view keeps the looked-up beer managed, so saving it needs no second select
+    assertThat(statements("PATCH", DECREMENT_ROUTE, "select").totalAmount(), is(1.0));
+    assertThat(statements("PATCH", DECREMENT_ROUTE, "update").totalAmount(), is(1.0));
+    assertThat(statements("PATCH", DECREMENT_ROUTE, "insert").totalAmount(), is(1.0));
+    assertThat(statements("GET", FIND_BY_NAME_ROUTE, "select").totalAmount(), is(1.0));
+    assertThat(statements("GET", FIND_BY_NAME_ROUTE, "select").count(), is(1L));
+  }
+
+  @Test
+  void whenCatalogIsUnchangedThenRepeatedListingsAreServedWithoutStatements() throws Exception {
+    // given
+    beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Listed").build().toBeerDTO());
+    // when
+    for (int i = 0; i < 3; i++) {
+      mockMvc.perform(get(LIST_ROUTE)).andExpect(status().isOk());
+    }
+    // then: only the first listing after the change reads the catalog
+    assertThat(statements("GET", LIST_ROUTE, "select").count(), is(3L));
+    assertThat(statements("GET", LIST_ROUTE, "select").totalAmount(), is(1.0));
+  }
+
+  private DistributionSummary statements(String method, String uri, String type) {
+    return meterRegistry.get("beerstock.jdbc.statements")
+        .tag("method", method)
+        .tag("uri", uri)
+        .tag("type", type)
+        .summary();
+  }
+}
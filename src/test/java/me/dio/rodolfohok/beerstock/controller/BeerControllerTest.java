@@ -1,7 +1,12 @@
 package me.dio.rodolfohok.beerstock.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.catalog.CatalogResponseCache;
+import me.dio.rodolfohok.beerstock.catalog.CatalogVersion;
 import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerIdsDTO;
 import me.dio.rodolfohok.beerstock.dto.QuantityDTO;
 import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
 import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
@@ -10,22 +15,27 @@ import me.dio.rodolfohok.beerstock.utils.JsonConversionUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
 public class BeerControllerTest {
@@ -39,13 +49,16 @@ public class BeerControllerTest {
   @Mock
   private BeerService beerService;
 
-  @InjectMocks
+  private final CatalogVersion catalogVersion = new CatalogVersion();
+
   private BeerController beerController;
 
   private MockMvc mockMvc;
 
   @BeforeEach
   void setUp() {
+    beerController = new BeerController(beerService,
+        new CatalogResponseCache(catalogVersion, new ObjectMapper(), new SimpleMeterRegistry()));
     mockMvc = MockMvcBuilders.standaloneSetup(beerController)
         .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
         .setViewResolvers((viewName, locale) -> new MappingJackson2JsonView())
@@ -112,7 +125,7 @@ public class BeerControllerTest {
     // given
     BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
     // when
-    when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+    when(beerService.listAllFresh()).thenReturn(Collections.singletonList(beerDTO));
     // then
     mockMvc.perform(get(BEER_API_URL_PATH)
             .contentType(MediaType.APPLICATION_JSON))
@@ -125,13 +138,83 @@ public class BeerControllerTest {
   @Test
   void whenGETListWithoutBeersIsCalledThenOkStatusIsReturned() throws Exception {
     // when
-    when(beerService.listAll()).thenReturn(Collections.emptyList());
+    when(beerService.listAllFresh()).thenReturn(Collections.emptyList());
     // then
     mockMvc.perform(get(BEER_API_URL_PATH)
             .contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk());
   }
 
+  @Test
+  void whenGETListIsCalledTwiceWithAnUnchangedCatalogThenItIsRenderedOnce() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.listAllFresh()).thenReturn(Collections.singletonList(beerDTO));
+    mockMvc.perform(get(BEER_API_URL_PATH)).andExpect(status().isOk());
+    mockMvc.perform(get(BEER_API_URL_PATH)).andExpect(status().isOk());
+    // then
+    verify(beerService, times(1)).listAllFresh();
+  }
+
+  @Test
+  void whenCatalogChangesThenGETListIsRenderedAgain() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.listAllFresh()).thenReturn(Collections.emptyList(), Collections.singletonList(beerDTO));
+    mockMvc.perform(get(BEER_API_URL_PATH)).andExpect(jsonPath("$", hasSize(0)));
+    catalogVersion.bump();
+    // then
+    mockMvc.perform(get(BEER_API_URL_PATH)).andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+  }
+
+  @Test
+  void whenGETListAcceptsGzipThenTheGzippedBodyIsReturned() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.listAllFresh()).thenReturn(Collections.singletonList(beerDTO));
+    byte[] body = mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andReturn().getResponse().getContentAsByteArray();
+    // then
+    assertThat(gunzip(body), containsString(beerDTO.getName()));
+  }
+
+  @Test
+  void whenGETListRefusesGzipThenThePlainBodyIsReturned() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.listAllFresh()).thenReturn(Collections.singletonList(beerDTO));
+    // then
+    mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "*;q=0.5, gzip;q=0.0"))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    mockMvc.perform(get(BEER_API_URL_PATH).header(HttpHeaders.ACCEPT_ENCODING, "*;q=0.5"))
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+  }
+
+  @Test
+  void whenGETListIsCalledWithPageAndSizeThenThatSliceIsReturned() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.listPage(1, 2)).thenReturn(List.of(beerDTO));
+    // then
+    mockMvc.perform(get(BEER_API_URL_PATH).param("page", "1").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$[0].name", is(beerDTO.getName())));
+    verify(beerService, never()).listAllFresh();
+  }
+
   @Test
   void whenDELETEIsCalledWithAValidIdThenNoContentStatusIsReturned() throws Exception {
     // given
@@ -154,6 +237,52 @@ public class BeerControllerTest {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  void whenDELETEIsCalledWithSeveralIdsThenNoContentStatusIsReturned() throws Exception {
+    // given
+    BeerIdsDTO beerIdsDTO = BeerIdsDTO.builder().ids(List.of(VALID_BEER_ID, INVALID_BEER_ID)).build();
+    // when
+    when(beerService.deleteAllById(beerIdsDTO.getIds())).thenReturn(1);
+    // then
+    mockMvc.perform(delete(BEER_API_URL_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(JsonConversionUnit.asJsonString(beerIdsDTO)))
+        .andExpect(status().isNoContent());
+  }
+
+  @Test
+  void whenDELETEIsCalledWithoutIdsThenBadRequestStatusIsReturned() throws Exception {
+    // given
+    BeerIdsDTO beerIdsDTO = BeerIdsDTO.builder().ids(Collections.emptyList()).build();
+    // then
+    mockMvc.perform(delete(BEER_API_URL_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(JsonConversionUnit.asJsonString(beerIdsDTO)))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(beerService);
+  }
+
+  @Test
+  void whenPOSTIsCalledToRestoreADeletedBeerThenOkStatusIsReturned() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.restore(beerDTO.getId())).thenReturn(beerDTO);
+    // then
+    mockMvc.perform(post(BEER_API_URL_PATH + "/" + beerDTO.getId() + "/restore"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name", is(beerDTO.getName())));
+  }
+
+  @Test
+  void whenPOSTIsCalledToRestoreAnUnknownBeerThenNotFoundStatusIsReturned() throws Exception {
+    // when
+    when(beerService.restore(INVALID_BEER_ID)).thenThrow(BeerNotFoundException.class);
+    // then
+    mockMvc.perform(post(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + "/restore"))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   void whenPATCHIsCalledToIncrementDiscountThenOKstatusIsReturned() throws Exception {
     // given
@@ -256,4 +385,10 @@ public class BeerControllerTest {
             .content(JsonConversionUnit.asJsonString(quantityDTO)))
         .andExpect(status().isNotFound());
   }
+
+  private static String gunzip(byte[] body) throws IOException {
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
 }
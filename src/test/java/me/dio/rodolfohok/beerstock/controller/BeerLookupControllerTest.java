@@ -0,0 +1,87 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupRequestDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupResultDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import me.dio.rodolfohok.beerstock.utils.JsonConversionUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerLookupControllerTest {
+
+  private static final String LOOKUP_API_URL_PATH = "/api/v1/beers/lookup";
+
+  @Mock
+  private BeerService beerService;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(new BeerLookupController(beerService, new ObjectMapper())).build();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void whenPOSTIsCalledThenResultsAreReturnedInRequestOrder() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    BeerLookupRequestDTO beerLookupRequestDTO = BeerLookupRequestDTO.builder()
+        .names(List.of("Missing", beerDTO.getName()))
+        .build();
+    // when
+    doAnswer(invocation -> {
+      Consumer<BeerLookupResultDTO> sink = invocation.getArgument(2);
+      sink.accept(BeerLookupResultDTO.builder().name("Missing").found(false).build());
+      sink.accept(BeerLookupResultDTO.builder().name(beerDTO.getName()).found(true).beer(beerDTO).build());
+      return null;
+    }).when(beerService).lookup(eq(List.of("Missing", beerDTO.getName())), eq(List.of()), any(Consumer.class));
+    // then
+    mockMvc.perform(post(LOOKUP_API_URL_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(JsonConversionUnit.asJsonString(beerLookupRequestDTO)))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].name", is("Missing")))
+        .andExpect(jsonPath("$[0].found", is(false)))
+        .andExpect(jsonPath("$[0].beer").doesNotExist())
+        .andExpect(jsonPath("$[1].found", is(true)))
+        .andExpect(jsonPath("$[1].beer.brand", is(beerDTO.getBrand())));
+  }
+
+  @Test
+  void whenPOSTIsCalledWithTooManyKeysThenAnErrorIsReturned() throws Exception {
+    // given
+    BeerLookupRequestDTO beerLookupRequestDTO = BeerLookupRequestDTO.builder()
+        .ids(IntStream.rangeClosed(0, BeerLookupRequestDTO.MAX_KEYS).mapToObj(Long::valueOf).collect(Collectors.toList()))
+        .build();
+    // then
+    mockMvc.perform(post(LOOKUP_API_URL_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(JsonConversionUnit.asJsonString(beerLookupRequestDTO)))
+        .andExpect(status().isBadRequest());
+  }
+}
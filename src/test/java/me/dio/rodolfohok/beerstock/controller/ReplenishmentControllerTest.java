@@ -0,0 +1,62 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import me.dio.rodolfohok.beerstock.dto.BrandReplenishmentDTO;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentPlanDTO;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentSuggestionDTO;
+import me.dio.rodolfohok.beerstock.replenishment.ReplenishmentPlanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplenishmentControllerTest {
+
+  private static final String REPLENISHMENT_API_URL_PATH = "/api/v1/beers/replenishment";
+
+  @Mock
+  private ReplenishmentPlanner replenishmentPlanner;
+
+  @InjectMocks
+  private ReplenishmentController replenishmentController;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(replenishmentController).build();
+  }
+
+  @Test
+  void whenGETIsCalledThenTheLatestPlanIsReturnedGroupedByBrand() throws Exception {
+    // given
+    ReplenishmentPlanDTO plan = new ReplenishmentPlanDTO(Instant.parse("2026-01-01T00:00:00Z"), Duration.ofHours(1), 7, 3,
+        List.of(new BrandReplenishmentDTO("Ambev", 50, List.of(
+            new ReplenishmentSuggestionDTO(1L, "Skol", 0, 50, 0.0, 0.0, 50),
+            new ReplenishmentSuggestionDTO(2L, "Brahma", 10, 50, 0.0, null, 40)))));
+    // when
+    when(replenishmentPlanner.current()).thenReturn(plan);
+    // then
+    mockMvc.perform(get(REPLENISHMENT_API_URL_PATH))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.beersPlanned", is(3)))
+        .andExpect(jsonPath("$.brands[0].brand", is("Ambev")))
+        .andExpect(jsonPath("$.brands[0].reorderQuantity", is(50)))
+        .andExpect(jsonPath("$.brands[0].suggestions[0].name", is("Skol")))
+        .andExpect(jsonPath("$.brands[0].suggestions[1].daysUntilEmpty").doesNotExist());
+  }
+}
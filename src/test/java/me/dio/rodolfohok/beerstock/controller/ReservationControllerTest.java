@@ -0,0 +1,88 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import me.dio.rodolfohok.beerstock.dto.ReservationDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationRequestDTO;
+import me.dio.rodolfohok.beerstock.exception.ReservationNotFoundException;
+import me.dio.rodolfohok.beerstock.service.ReservationService;
+import me.dio.rodolfohok.beerstock.utils.JsonConversionUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationControllerTest {
+
+  private static final String RESERVATION_API_URL_PATH = "/api/v1/beers/1/reservations";
+  private static final long VALID_BEER_ID = 1L;
+  private static final String INVALID_RESERVATION_ID = "unknown";
+
+  @Mock
+  private ReservationService reservationService;
+
+  @InjectMocks
+  private ReservationController reservationController;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(reservationController).build();
+  }
+
+  @Test
+  void whenPOSTIsCalledThenAReservationIsCreated() throws Exception {
+    // given
+    ReservationRequestDTO reservationRequestDTO = ReservationRequestDTO.builder().quantity(4).ttlSeconds(60L).build();
+    ReservationDTO reservationDTO = ReservationDTO.builder()
+        .id("reservation")
+        .beerId(VALID_BEER_ID)
+        .quantity(4)
+        .expiresAt(Instant.now().plusSeconds(60))
+        .availableToPromise(6)
+        .build();
+    // when
+    when(reservationService.reserve(VALID_BEER_ID, 4, 60L)).thenReturn(reservationDTO);
+    // then
+    mockMvc.perform(post(RESERVATION_API_URL_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(JsonConversionUnit.asJsonString(reservationRequestDTO)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id", is(reservationDTO.getId())))
+        .andExpect(jsonPath("$.availableToPromise", is(6)));
+  }
+
+  @Test
+  void whenPOSTIsCalledWithoutTtlThenAnErrorReturned() throws Exception {
+    // given
+    ReservationRequestDTO reservationRequestDTO = ReservationRequestDTO.builder().quantity(4).build();
+    // then
+    mockMvc.perform(post(RESERVATION_API_URL_PATH)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(JsonConversionUnit.asJsonString(reservationRequestDTO)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenDELETEIsCalledWithAnInvalidReservationThenNotFoundStatusIsReturned() throws Exception {
+    // when
+    doThrow(ReservationNotFoundException.class).when(reservationService).release(VALID_BEER_ID, INVALID_RESERVATION_ID);
+    // then
+    mockMvc.perform(delete(RESERVATION_API_URL_PATH + "/" + INVALID_RESERVATION_ID))
+        .andExpect(status().isNotFound());
+  }
+}
@@ -0,0 +1,87 @@
+package me.dio.rodolfohok.beerstock.controller;
+
+import me.dio.rodolfohok.beerstock.dto.StockHistoryDTO;
+import me.dio.rodolfohok.beerstock.dto.StockHistoryPointDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.InvalidHistoryRangeException;
+import me.dio.rodolfohok.beerstock.history.Resolution;
+import me.dio.rodolfohok.beerstock.service.StockHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class StockHistoryControllerTest {
+
+  private static final String HISTORY_API_URL_PATH = "/api/v1/beers/1/history";
+  private static final long VALID_BEER_ID = 1L;
+  private static final Instant FROM = Instant.parse("2026-01-01T00:00:00Z");
+  private static final Instant TO = Instant.parse("2026-01-01T01:00:00Z");
+
+  @Mock
+  private StockHistoryService stockHistoryService;
+
+  @InjectMocks
+  private StockHistoryController stockHistoryController;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(stockHistoryController).build();
+  }
+
+  @Test
+  void whenGETIsCalledWithRangeAndStepThenHistoryIsReturned() throws Exception {
+    // given
+    StockHistoryDTO history = new StockHistoryDTO(VALID_BEER_ID, FROM, TO, Duration.ofMinutes(5), Resolution.MINUTE,
+        List.of(new StockHistoryPointDTO(FROM, 10, 20, 15)));
+    // when
+    when(stockHistoryService.history(VALID_BEER_ID, FROM, TO, Duration.ofMinutes(5))).thenReturn(history);
+    // then
+    mockMvc.perform(get(HISTORY_API_URL_PATH)
+            .param("from", FROM.toString())
+            .param("to", TO.toString())
+            .param("step", "PT5M"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.beerId", is(1)))
+        .andExpect(jsonPath("$.resolution", is("MINUTE")))
+        .andExpect(jsonPath("$.points[0].max", is(20)));
+  }
+
+  @Test
+  void whenGETIsCalledWithAnInvalidRangeThenBadRequestIsReturned() throws Exception {
+    // when
+    when(stockHistoryService.history(VALID_BEER_ID, TO, FROM, null))
+        .thenThrow(new InvalidHistoryRangeException("from must be before to"));
+    // then
+    mockMvc.perform(get(HISTORY_API_URL_PATH)
+            .param("from", TO.toString())
+            .param("to", FROM.toString()))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenGETIsCalledForAnUnknownBeerThenNotFoundIsReturned() throws Exception {
+    // when
+    when(stockHistoryService.history(VALID_BEER_ID, null, null, null)).thenThrow(new BeerNotFoundException(VALID_BEER_ID));
+    // then
+    mockMvc.perform(get(HISTORY_API_URL_PATH))
+        .andExpect(status().isNotFound());
+  }
+}
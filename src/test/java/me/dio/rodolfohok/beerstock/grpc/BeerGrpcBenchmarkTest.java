@@ -0,0 +1,80 @@
+package me.dio.rodolfohok.beerstock.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.catalog.CatalogResponseCache;
+import me.dio.rodolfohok.beerstock.controller.BeerController;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerStockGrpc;
+import me.dio.rodolfohok.beerstock.grpc.proto.FindByNameRequest;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Compares the per-call overhead of the in-process gRPC path with the REST path on top of the same
+ * mocked {@link BeerService}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class BeerGrpcBenchmarkTest {
+
+  private static final int WARMUP_CALLS = 20_000;
+  private static final int MEASURED_CALLS = 100_000;
+
+  @Test
+  void compareFindByNameOverGrpcAndRest() throws Exception {
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    BeerService beerService = mock(BeerService.class);
+    when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+
+    String serverName = InProcessServerBuilder.generateName();
+    Server server = InProcessServerBuilder.forName(serverName)
+        .directExecutor()
+        .addService(new BeerGrpcService(beerService))
+        .build()
+        .start();
+    ManagedChannel channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    BeerStockGrpc.BeerStockBlockingStub stub = BeerStockGrpc.newBlockingStub(channel);
+    FindByNameRequest request = FindByNameRequest.newBuilder().setName(beerDTO.getName()).build();
+
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new BeerController(beerService, mock(CatalogResponseCache.class))).build();
+
+    try {
+      long grpcNanos = measure(() -> stub.findByName(request));
+      long restNanos = measure(() -> mockMvc.perform(get("/api/v1/beers/" + beerDTO.getName())
+          .accept(MediaType.APPLICATION_JSON)).andReturn());
+
+      System.out.printf("findByName gRPC: %d ns/op, REST: %d ns/op%n",
+          grpcNanos / MEASURED_CALLS, restNanos / MEASURED_CALLS);
+    } finally {
+      channel.shutdownNow();
+      server.shutdownNow();
+    }
+  }
+
+  private long measure(Call call) throws Exception {
+    for (int i = 0; i < WARMUP_CALLS; i++) {
+      call.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_CALLS; i++) {
+      call.run();
+    }
+    return System.nanoTime() - start;
+  }
+
+  @FunctionalInterface
+  private interface Call {
+    void run() throws Exception;
+  }
+}
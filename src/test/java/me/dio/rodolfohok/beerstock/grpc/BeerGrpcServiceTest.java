@@ -0,0 +1,192 @@
+package me.dio.rodolfohok.beerstock.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerMessage;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerStockGrpc;
+import me.dio.rodolfohok.beerstock.grpc.proto.BeerTypeMessage;
+import me.dio.rodolfohok.beerstock.grpc.proto.FindByNameRequest;
+import me.dio.rodolfohok.beerstock.grpc.proto.ListBeersRequest;
+import me.dio.rodolfohok.beerstock.grpc.proto.QuantityRequest;
+import me.dio.rodolfohok.beerstock.grpc.proto.StockAdjustment;
+import me.dio.rodolfohok.beerstock.grpc.proto.StockAdjustmentResult;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerGrpcServiceTest {
+
+  private static final long VALID_BEER_ID = 1L;
+  private static final long INVALID_BEER_ID = 2L;
+
+  @Mock
+  private BeerService beerService;
+
+  @InjectMocks
+  private BeerGrpcService beerGrpcService;
+
+  private Server server;
+  private ManagedChannel channel;
+  private BeerStockGrpc.BeerStockBlockingStub blockingStub;
+  private BeerStockGrpc.BeerStockStub asyncStub;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    String serverName = InProcessServerBuilder.generateName();
+    server = InProcessServerBuilder.forName(serverName)
+        .directExecutor()
+        .addService(beerGrpcService)
+        .build()
+        .start();
+    channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    blockingStub = BeerStockGrpc.newBlockingStub(channel);
+    asyncStub = BeerStockGrpc.newStub(channel);
+  }
+
+  @AfterEach
+  void tearDown() {
+    channel.shutdownNow();
+    server.shutdownNow();
+  }
+
+  @Test
+  void whenFindByNameIsCalledWithAValidNameThenABeerIsReturned() throws BeerNotFoundException {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.findByName(beerDTO.getName())).thenReturn(beerDTO);
+    // then
+    BeerMessage foundBeer = blockingStub.findByName(FindByNameRequest.newBuilder().setName(beerDTO.getName()).build());
+    assertThat(foundBeer.getName(), is(equalTo(beerDTO.getName())));
+    assertThat(foundBeer.getBrand(), is(equalTo(beerDTO.getBrand())));
+    assertThat(foundBeer.getType(), is(equalTo(BeerTypeMessage.LAGER)));
+  }
+
+  @Test
+  void whenFindByNameIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws BeerNotFoundException {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.findByName(beerDTO.getName())).thenThrow(new BeerNotFoundException(beerDTO.getName()));
+    // then
+    StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+        () -> blockingStub.findByName(FindByNameRequest.newBuilder().setName(beerDTO.getName()).build()));
+    assertThat(exception.getStatus().getCode(), is(equalTo(Status.Code.NOT_FOUND)));
+  }
+
+  @Test
+  void whenListBeersIsCalledThenAllBeersAreStreamed() {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.listAll()).thenReturn(Collections.singletonList(beerDTO));
+    // then
+    List<BeerMessage> beers = new ArrayList<>();
+    blockingStub.listBeers(ListBeersRequest.getDefaultInstance()).forEachRemaining(beers::add);
+    assertThat(beers, hasSize(1));
+    assertThat(beers.get(0).getName(), is(equalTo(beerDTO.getName())));
+  }
+
+  @Test
+  void whenIncrementIsCalledThenIncrementedBeerIsReturned() throws BeerNotFoundException, BeerStockExceededException {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
+    // when
+    when(beerService.increment(VALID_BEER_ID, 10)).thenReturn(beerDTO);
+    // then
+    BeerMessage incrementedBeer = blockingStub.increment(QuantityRequest.newBuilder().setId(VALID_BEER_ID).setQuantity(10).build());
+    assertThat(incrementedBeer.getQuantity(), is(equalTo(20)));
+  }
+
+  @Test
+  void whenDecrementIsLowerThanZeroThenFailedPreconditionStatusIsReturned() throws BeerNotFoundException, BeerStockExceededException {
+    // when
+    when(beerService.decrement(VALID_BEER_ID, 60)).thenThrow(new BeerStockExceededException(VALID_BEER_ID, 60));
+    // then
+    StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+        () -> blockingStub.decrement(QuantityRequest.newBuilder().setId(VALID_BEER_ID).setQuantity(60).build()));
+    assertThat(exception.getStatus().getCode(), is(equalTo(Status.Code.FAILED_PRECONDITION)));
+  }
+
+  @Test
+  void whenQuantityIsOutOfBoundsThenInvalidArgumentStatusIsReturned() {
+    // then
+    StatusRuntimeException tooMany = assertThrows(StatusRuntimeException.class,
+        () -> blockingStub.increment(QuantityRequest.newBuilder().setId(VALID_BEER_ID).setQuantity(101).build()));
+    assertThat(tooMany.getStatus().getCode(), is(equalTo(Status.Code.INVALID_ARGUMENT)));
+    StatusRuntimeException negative = assertThrows(StatusRuntimeException.class,
+        () -> blockingStub.decrement(QuantityRequest.newBuilder().setId(VALID_BEER_ID).setQuantity(Integer.MIN_VALUE).build()));
+    assertThat(negative.getStatus().getCode(), is(equalTo(Status.Code.INVALID_ARGUMENT)));
+    verifyNoInteractions(beerService);
+  }
+
+  @Test
+  void whenAdjustStockIsStreamedThenEachAdjustmentIsAnsweredIndividually() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerService.increment(VALID_BEER_ID, 5)).thenReturn(beerDTO);
+    when(beerService.decrement(INVALID_BEER_ID, 3)).thenThrow(new BeerNotFoundException(INVALID_BEER_ID));
+    // then
+    List<StockAdjustmentResult> results = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch completed = new CountDownLatch(1);
+    StreamObserver<StockAdjustment> requests = asyncStub.adjustStock(new StreamObserver<>() {
+      @Override
+      public void onNext(StockAdjustmentResult result) {
+        results.add(result);
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        completed.countDown();
+      }
+
+      @Override
+      public void onCompleted() {
+        completed.countDown();
+      }
+    });
+    requests.onNext(StockAdjustment.newBuilder().setId(VALID_BEER_ID).setDelta(5).build());
+    requests.onNext(StockAdjustment.newBuilder().setId(INVALID_BEER_ID).setDelta(-3).build());
+    requests.onNext(StockAdjustment.newBuilder().setId(VALID_BEER_ID).setDelta(Integer.MIN_VALUE).build());
+    requests.onCompleted();
+
+    assertThat(completed.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(results, hasSize(3));
+    assertThat(results.get(0).getAccepted(), is(true));
+    assertThat(results.get(1).getAccepted(), is(false));
+    assertThat(results.get(1).getError(), is(not(emptyString())));
+    assertThat(results.get(2).getAccepted(), is(false));
+    assertThat(results.get(2).getError(), containsString("out of bounds"));
+    verify(beerService, never()).decrement(VALID_BEER_ID, Integer.MIN_VALUE);
+  }
+}
@@ -0,0 +1,156 @@
+package me.dio.rodolfohok.beerstock.history;
+
+import me.dio.rodolfohok.beerstock.dto.StockHistoryDTO;
+import me.dio.rodolfohok.beerstock.dto.StockHistoryPointDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StockHistoryTest {
+
+  private static final Long BEER_ID = 1L;
+  private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+  private final MutableClock clock = new MutableClock(START);
+  private final StockHistory stockHistory = new StockHistory(clock, Duration.ofHours(1), Duration.ofDays(1));
+
+  @Test
+  void whenStepIsFinerThanAMinuteThenRawPointsAreReturned() {
+    // given
+    recordEvery(Duration.ofSeconds(10), 100, 90, 80);
+    // when
+    StockHistoryDTO history = stockHistory.query(BEER_ID, START, START.plusSeconds(60), Duration.ofSeconds(10));
+    // then
+    assertThat(history.getResolution(), is(Resolution.RAW));
+    assertThat(history.getPoints(), hasSize(3));
+    assertThat(history.getPoints().get(1), is(new StockHistoryPointDTO(START.plusSeconds(10), 90, 90, 90)));
+  }
+
+  @Test
+  void whenStockIsConsumedThenItIsSummedFromTheBucketsFromTheWindowStart() {
+    // given
+    stockHistory.record(BEER_ID, 100);
+    clock.advance(Duration.ofSeconds(30));
+    stockHistory.record(BEER_ID, 96, 4);
+    clock.advance(Duration.ofMinutes(2));
+    stockHistory.record(BEER_ID, 120);
+    stockHistory.record(BEER_ID, 115, 5);
+    stockHistory.record(2L, 10, 0);
+    // then
+    assertThat(stockHistory.consumedSince(START.plusSeconds(10)), is(Map.of(BEER_ID, 9L)));
+    assertThat(stockHistory.consumedSince(START.plusSeconds(90)), is(Map.of(BEER_ID, 5L)));
+    // past the minute retention the window is widened to the hour
+    clock.advance(Duration.ofDays(2));
+    assertThat(stockHistory.consumedSince(START.plusSeconds(90)), is(Map.of(BEER_ID, 9L)));
+  }
+
+  @Test
+  void whenStepIsAMinuteThenPointsAreDownsampledToMinMaxAndLast() {
+    // given
+    recordEvery(Duration.ofSeconds(20), 100, 40, 70, 50, 60, 20);
+    // when
+    StockHistoryDTO history = stockHistory.query(BEER_ID, START, START.plus(Duration.ofMinutes(5)), Duration.ofMinutes(1));
+    // then
+    assertThat(history.getResolution(), is(Resolution.MINUTE));
+    assertThat(history.getPoints(), contains(
+        new StockHistoryPointDTO(START, 40, 100, 70),
+        new StockHistoryPointDTO(START.plusSeconds(60), 20, 60, 20)));
+  }
+
+  @Test
+  void whenStepSpansSeveralBucketsThenBucketsAreMerged() {
+    // given
+    recordEvery(Duration.ofMinutes(1), 10, 30, 20, 5);
+    // when
+    StockHistoryDTO history = stockHistory.query(BEER_ID, START, START.plus(Duration.ofMinutes(4)), Duration.ofMinutes(2));
+    // then
+    assertThat(history.getStep(), is(Duration.ofMinutes(2)));
+    assertThat(history.getPoints(), contains(
+        new StockHistoryPointDTO(START, 10, 30, 30),
+        new StockHistoryPointDTO(START.plusSeconds(120), 5, 20, 5)));
+  }
+
+  @Test
+  void whenFromIsOlderThanRawRetentionThenMinuteBucketsAreUsedAndStepIsWidened() {
+    // given
+    recordEvery(Duration.ofSeconds(30), 1, 2, 3, 4);
+    clock.advance(Duration.ofHours(2));
+    // when
+    StockHistoryDTO history = stockHistory.query(BEER_ID, START, START.plus(Duration.ofMinutes(2)), Duration.ofSeconds(1));
+    // then
+    assertThat(history.getResolution(), is(Resolution.MINUTE));
+    assertThat(history.getStep(), is(Duration.ofMinutes(1)));
+    assertThat(history.getPoints(), hasSize(2));
+  }
+
+  @Test
+  void whenPrunedThenRawPointsAreDroppedButCoarseTiersRemain() {
+    // given
+    for (int i = 0; i < 3 * StockSeries.CHUNK_POINTS; i++) {
+      stockHistory.record(BEER_ID, i % 100);
+      clock.advance(Duration.ofSeconds(1));
+    }
+    long sizeBeforePrune = stockHistory.sizeInBytes();
+    clock.advance(Duration.ofHours(3));
+    stockHistory.record(BEER_ID, 0);
+    // when
+    stockHistory.prune();
+    // then
+    assertThat(stockHistory.sizeInBytes(), is(lessThan(sizeBeforePrune)));
+    StockHistoryDTO history = stockHistory.query(BEER_ID, START, START.plus(Duration.ofHours(1)), Duration.ofMinutes(1));
+    assertThat(history.getResolution(), is(Resolution.MINUTE));
+    assertThat(history.getPoints(), hasSize(13));
+  }
+
+  @Test
+  void whenBeerHasNoHistoryThenNoPointsAreReturned() {
+    // when
+    StockHistoryDTO history = stockHistory.query(2L, START, START.plusSeconds(60), Duration.ofSeconds(1));
+    // then
+    assertThat(stockHistory.contains(2L), is(false));
+    assertThat(history.getPoints(), is(empty()));
+  }
+
+  private void recordEvery(Duration interval, int... quantities) {
+    for (int quantity : quantities) {
+      stockHistory.record(BEER_ID, quantity);
+      clock.advance(interval);
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package me.dio.rodolfohok.beerstock.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimeSeriesChunkTest {
+
+  @Test
+  void whenPointsAreAppendedThenTheyAreDecodedInOrder() {
+    // given
+    TimeSeriesChunk.Builder builder = new TimeSeriesChunk.Builder(2);
+    builder.append(1_000L, 10, -5);
+    builder.append(1_250L, 7, 0);
+    builder.append(1_250L, 7, 3);
+    builder.append(9_000L, 100, -1);
+    // when
+    List<String> points = new ArrayList<>();
+    builder.build().forEach(0, Long.MAX_VALUE, (timestamp, values) -> points.add(timestamp + ":" + values[0] + "," + values[1]));
+    // then
+    assertThat(points, contains("1000:10,-5", "1250:7,0", "1250:7,3", "9000:100,-1"));
+  }
+
+  @Test
+  void whenRangeIsGivenThenOnlyPointsInsideItAreDecoded() {
+    // given
+    TimeSeriesChunk.Builder builder = new TimeSeriesChunk.Builder(1);
+    for (int i = 0; i < 10; i++) {
+      builder.append(i * 1_000L, i);
+    }
+    // when
+    List<Long> timestamps = new ArrayList<>();
+    builder.build().forEach(3_000L, 6_000L, (timestamp, values) -> timestamps.add(timestamp));
+    // then
+    assertThat(timestamps, contains(3_000L, 4_000L, 5_000L));
+  }
+
+  @Test
+  void whenPointsArriveAtASteadyIntervalThenEachCostsAFewBytes() {
+    // given
+    TimeSeriesChunk.Builder builder = new TimeSeriesChunk.Builder(1);
+    long start = 1_700_000_000_000L;
+    // when
+    for (int i = 0; i < StockSeries.CHUNK_POINTS; i++) {
+      builder.append(start + i * 60_000L, 500 - i % 7);
+    }
+    TimeSeriesChunk chunk = builder.build();
+    // then
+    assertThat(chunk.getCount(), is(StockSeries.CHUNK_POINTS));
+    assertThat(chunk.sizeInBytes(), is(lessThan(3 * StockSeries.CHUNK_POINTS)));
+  }
+
+  @Test
+  void whenPointIsAppendedOutOfOrderThenIllegalArgumentExceptionIsThrown() {
+    // given
+    TimeSeriesChunk.Builder builder = new TimeSeriesChunk.Builder(1);
+    builder.append(2_000L, 1);
+    // then
+    assertThrows(IllegalArgumentException.class, () -> builder.append(1_000L, 1));
+  }
+}
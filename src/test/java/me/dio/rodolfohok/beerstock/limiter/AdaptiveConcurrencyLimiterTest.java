@@ -0,0 +1,63 @@
+package me.dio.rodolfohok.beerstock.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+  private static final long BASELINE_RTT = TimeUnit.MILLISECONDS.toNanos(5);
+
+  private final AtomicLong nanoClock = new AtomicLong();
+  private final AdaptiveConcurrencyLimiter limiter =
+      new AdaptiveConcurrencyLimiter(10, 2, 100, TimeUnit.MINUTES.toNanos(1), nanoClock::get);
+
+  @Test
+  void whenLimitIsReachedThenRequestsAreShed() {
+    // when
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire(), is(greaterThanOrEqualTo(0L)));
+    }
+    // then
+    assertThat(limiter.tryAcquire(), is(equalTo(-1L)));
+    assertThat(limiter.getInFlight(), is(equalTo(10)));
+  }
+
+  @Test
+  void whenLatencyStaysAtBaselineUnderFullLoadThenLimitGrows() {
+    // when
+    runRounds(20, BASELINE_RTT);
+    // then
+    assertThat(limiter.getLimit(), is(greaterThan(10)));
+  }
+
+  @Test
+  void whenLatencyGrowsUnderFullLoadThenLimitShrinks() {
+    // given
+    runRounds(5, BASELINE_RTT);
+    int limitBeforeQueueing = limiter.getLimit();
+    // when
+    runRounds(20, BASELINE_RTT * 4);
+    // then
+    assertThat(limiter.getLimit(), is(lessThan(limitBeforeQueueing)));
+    assertThat(limiter.getLimit(), is(greaterThanOrEqualTo(2)));
+  }
+
+  private void runRounds(int rounds, long rttNanos) {
+    for (int round = 0; round < rounds; round++) {
+      List<Long> starts = new ArrayList<>();
+      long start;
+      while ((start = limiter.tryAcquire()) >= 0) {
+        starts.add(start);
+      }
+      nanoClock.addAndGet(rttNanos);
+      starts.forEach(limiter::release);
+    }
+  }
+}
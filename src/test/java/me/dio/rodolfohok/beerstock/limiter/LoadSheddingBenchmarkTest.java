@@ -0,0 +1,112 @@
+package me.dio.rodolfohok.beerstock.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.catalog.CatalogResponseCache;
+import me.dio.rodolfohok.beerstock.controller.BeerController;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Drives the REST path at three times the capacity of a simulated backend (a fixed number of
+ * database connections with a constant query time) and reports latency of the accepted requests
+ * with and without load shedding. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class LoadSheddingBenchmarkTest {
+
+  private static final int BACKEND_CONNECTIONS = 8;
+  private static final long QUERY_MILLIS = 2;
+  private static final int CLIENTS = BACKEND_CONNECTIONS * 3;
+  private static final long DURATION_SECONDS = 10;
+
+  @Test
+  void compareLatencyUnderThreeTimesOverload() throws Exception {
+    report("without limiter", run(false));
+    report("with limiter", run(true));
+  }
+
+  private List<Long> run(boolean limited) throws Exception {
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Semaphore connections = new Semaphore(BACKEND_CONNECTIONS, true);
+    BeerService beerService = mock(BeerService.class);
+    when(beerService.findByName(beerDTO.getName())).thenAnswer(invocation -> {
+      connections.acquire();
+      try {
+        Thread.sleep(QUERY_MILLIS);
+        return beerDTO;
+      } finally {
+        connections.release();
+      }
+    });
+
+    StandaloneMockMvcBuilder builder = MockMvcBuilders.standaloneSetup(new BeerController(beerService, mock(CatalogResponseCache.class)));
+    if (limited) {
+      AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(BACKEND_CONNECTIONS, 2, 100,
+          TimeUnit.SECONDS.toNanos(5), System::nanoTime);
+      builder.addInterceptors(new LoadSheddingInterceptor(1_000_000, 1_000_000, 1_000_000, 1_000_000, 10_000, false,
+          limiter, new SimpleMeterRegistry(), System::nanoTime));
+    }
+    MockMvc mockMvc = builder.build();
+
+    List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger rejected = new AtomicInteger();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    for (int i = 0; i < CLIENTS; i++) {
+      clients.execute(() -> {
+        while (System.nanoTime() < deadline) {
+          long start = System.nanoTime();
+          try {
+            int status = mockMvc.perform(get("/api/v1/beers/" + beerDTO.getName())).andReturn().getResponse().getStatus();
+            if (status == 200) {
+              latencies.add(System.nanoTime() - start);
+            } else {
+              rejected.incrementAndGet();
+              Thread.sleep(QUERY_MILLIS);
+            }
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }
+      });
+    }
+    clients.shutdown();
+    clients.awaitTermination(DURATION_SECONDS + 10, TimeUnit.SECONDS);
+    System.out.printf("%s rejected %d requests%n", limited ? "with limiter" : "without limiter", rejected.get());
+    return latencies;
+  }
+
+  private void report(String label, List<Long> latencies) {
+    List<Long> sorted = new ArrayList<>(latencies);
+    Collections.sort(sorted);
+    System.out.printf("%s: %d accepted, p50 %.2f ms, p99 %.2f ms%n", label, sorted.size(),
+        percentile(sorted, 0.50), percentile(sorted, 0.99));
+  }
+
+  private double percentile(List<Long> sorted, double percentile) {
+    if (sorted.isEmpty()) {
+      return 0;
+    }
+    int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+    return sorted.get(Math.max(0, index)) / 1_000_000d;
+  }
+}
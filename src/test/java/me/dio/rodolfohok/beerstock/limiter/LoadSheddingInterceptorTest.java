@@ -0,0 +1,79 @@
+package me.dio.rodolfohok.beerstock.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LoadSheddingInterceptorTest {
+
+  private final AtomicLong nanoClock = new AtomicLong();
+
+  @Test
+  void whenCallerRotatesClientIdsThenItsLimitIsKeptByAddress() {
+    // given
+    LoadSheddingInterceptor interceptor = interceptor(10, false);
+    // when
+    assertThat(allowed(interceptor, "10.0.0.1", "a"), is(true));
+    assertThat(allowed(interceptor, "10.0.0.1", "b"), is(true));
+    // then
+    for (int i = 0; i < 20; i++) {
+      assertThat(allowed(interceptor, "10.0.0.1", "rotated-" + i), is(false));
+    }
+  }
+
+  @Test
+  void whenClientIdHeaderIsTrustedThenClientsAreToldApartByIt() {
+    // given
+    LoadSheddingInterceptor interceptor = interceptor(10, true);
+    // when
+    allowed(interceptor, "10.0.0.1", "a");
+    allowed(interceptor, "10.0.0.1", "a");
+    // then
+    assertThat(allowed(interceptor, "10.0.0.1", "a"), is(false));
+    assertThat(allowed(interceptor, "10.0.0.1", "b"), is(true));
+  }
+
+  @Test
+  void whenTrackedClientsAreFullThenActiveClientsKeepTheirLimits() {
+    // given
+    LoadSheddingInterceptor interceptor = interceptor(2, false);
+    allowed(interceptor, "10.0.0.1", null);
+    allowed(interceptor, "10.0.0.1", null);
+    allowed(interceptor, "10.0.0.2", null);
+    // when: newcomers find no room and share the overflow bucket
+    assertThat(allowed(interceptor, "10.0.0.3", null), is(true));
+    assertThat(allowed(interceptor, "10.0.0.4", null), is(true));
+    assertThat(allowed(interceptor, "10.0.0.5", null), is(false));
+    // then
+    assertThat(allowed(interceptor, "10.0.0.1", null), is(false));
+    nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertThat(allowed(interceptor, "10.0.0.6", null), is(true));
+    assertThat(allowed(interceptor, "10.0.0.6", null), is(true));
+    assertThat(allowed(interceptor, "10.0.0.6", null), is(false));
+  }
+
+  private LoadSheddingInterceptor interceptor(int maxTrackedClients, boolean trustClientIdHeader) {
+    return new LoadSheddingInterceptor(1_000, 1_000, 1, 2, maxTrackedClients, trustClientIdHeader,
+        new AdaptiveConcurrencyLimiter(100, 1, 100, TimeUnit.SECONDS.toNanos(5), nanoClock::get),
+        new SimpleMeterRegistry(), nanoClock::get);
+  }
+
+  private boolean allowed(LoadSheddingInterceptor interceptor, String remoteAddress, String clientId) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/beers");
+    request.setRemoteAddr(remoteAddress);
+    if (clientId != null) {
+      request.addHeader(LoadSheddingInterceptor.CLIENT_ID_HEADER, clientId);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    boolean allowed = interceptor.preHandle(request, response, null);
+    interceptor.afterCompletion(request, response, null, null);
+    return allowed;
+  }
+}
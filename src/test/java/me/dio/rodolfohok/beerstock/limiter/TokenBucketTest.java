@@ -0,0 +1,44 @@
+package me.dio.rodolfohok.beerstock.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TokenBucketTest {
+
+  private final AtomicLong nanoClock = new AtomicLong();
+
+  @Test
+  void whenBurstIsExhaustedThenRequestsAreRejectedUntilRefill() {
+    // given
+    TokenBucket tokenBucket = new TokenBucket(2, 1, nanoClock::get);
+    // when
+    boolean first = tokenBucket.tryAcquire();
+    boolean second = tokenBucket.tryAcquire();
+    boolean third = tokenBucket.tryAcquire();
+    // then
+    assertThat(first, is(true));
+    assertThat(second, is(true));
+    assertThat(third, is(false));
+    assertThat(tokenBucket.secondsUntilNextToken(), is(equalTo(1L)));
+
+    nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertThat(tokenBucket.tryAcquire(), is(true));
+  }
+
+  @Test
+  void whenIdleForLongThenTokensDoNotExceedCapacity() {
+    // given
+    TokenBucket tokenBucket = new TokenBucket(2, 10, nanoClock::get);
+    // when
+    nanoClock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+    // then
+    assertThat(tokenBucket.tryAcquire(), is(true));
+    assertThat(tokenBucket.tryAcquire(), is(true));
+    assertThat(tokenBucket.tryAcquire(), is(false));
+  }
+}
@@ -0,0 +1,110 @@
+package me.dio.rodolfohok.beerstock.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import me.dio.rodolfohok.beerstock.BeerstockApplication;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Boots the application on a random port with a fresh in-memory H2, seeds the catalog and replays
+ * each traffic mix against the real REST API at a fixed arrival rate. Every mix gets a fresh
+ * application, a warm-up run that is not reported, and a measured run whose report is printed and
+ * written to {@code target/loadtest/<mix>.json}, so runs on two branches can be diffed.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=LoadTestHarnessTest}; tune with
+ * {@code -Dloadtest.mixes=READ_HEAVY,FLASH_SALE,BULK_CREATE}, {@code -Dloadtest.rate=200},
+ * {@code -Dloadtest.duration-seconds=20}, {@code -Dloadtest.warmup-seconds=5},
+ * {@code -Dloadtest.beers=1000} and {@code -Dloadtest.clients=50}.
+ */
+@Tag("benchmark")
+public class LoadTestHarnessTest {
+
+  private static final Path REPORT_DIRECTORY = Path.of("target", "loadtest");
+  private static final int HOT_BEER_STOCK = 1_000_000;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  @Test
+  void replayTrafficMixes() throws Exception {
+    List<TrafficMix> mixes = Arrays.stream(System.getProperty("loadtest.mixes", "READ_HEAVY,FLASH_SALE,BULK_CREATE").split(","))
+        .map(String::trim)
+        .map(TrafficMix::valueOf)
+        .collect(Collectors.toList());
+    double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+    Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20));
+    Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+    int beers = Integer.getInteger("loadtest.beers", 1000);
+    int clients = Integer.getInteger("loadtest.clients", 50);
+
+    Files.createDirectories(REPORT_DIRECTORY);
+    HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    OpenModelLoadGenerator generator = new OpenModelLoadGenerator(httpClient, clients);
+
+    for (TrafficMix mix : mixes) {
+      try (ConfigurableApplicationContext application = start()) {
+        TrafficMix.LoadTarget target = new TrafficMix.LoadTarget(
+            "http://localhost:" + application.getEnvironment().getProperty("local.server.port"),
+            seed(application.getBean(BeerRepository.class), beers), beers);
+        generator.run(mix + " warm-up", rate, warmup, random -> mix.next(target, random));
+        LoadTestResult result = generator.run(mix.name(), rate, duration, random -> mix.next(target, random));
+
+        Map<String, Object> report = result.toReport();
+        String json = objectMapper.writeValueAsString(report);
+        Files.writeString(REPORT_DIRECTORY.resolve(mix.name().toLowerCase() + ".json"), json);
+        System.out.println(json);
+        assertThat(result.getTotal(), is(greaterThan(0L)));
+        assertThat(mix + " had transport or server errors", result.getFailed(), is(0L));
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start() {
+    return new SpringApplicationBuilder(BeerstockApplication.class).run(
+        "--server.port=0",
+        "--grpc.server.port=0",
+        "--spring.datasource.url=jdbc:h2:mem:loadtest-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+        "--spring.main.banner-mode=off",
+        "--logging.level.root=WARN",
+        "--beerstock.outbox.relay.enabled=false",
+        // every generated client connects from 127.0.0.1, so the per-client limit has to go by X-Client-Id
+        "--beerstock.limiter.client.trust-client-id-header=true");
+  }
+
+  /**
+   * Seeds {@code beers} beers named {@code Beer 0} onwards and returns the id of the first one.
+   * The flash-sale beers get enough stock to last through the storm.
+   */
+  private static long seed(BeerRepository beerRepository, int beers) {
+    BeerType[] types = BeerType.values();
+    List<Beer> catalog = IntStream.range(0, beers)
+        .mapToObj(i -> i < TrafficMix.HOT_BEERS
+            ? new Beer(null, "Beer " + i, "Brand " + i % 20, HOT_BEER_STOCK, HOT_BEER_STOCK, types[i % types.length])
+            : new Beer(null, "Beer " + i, "Brand " + i % 20, 500, 100, types[i % types.length]))
+        .collect(Collectors.toCollection(ArrayList::new));
+    return beerRepository.saveAll(catalog).get(0).getId();
+  }
+}
@@ -0,0 +1,66 @@
+package me.dio.rodolfohok.beerstock.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one traffic mix: latency percentiles in milliseconds, achieved throughput and the
+ * responses grouped by outcome.
+ */
+final class LoadTestResult {
+
+  private final String name;
+  private final double offeredRate;
+  private final long elapsedNanos;
+  private final Histogram latencies;
+  private final long succeeded;
+  private final long rejectedByBusinessRules;
+  private final long shed;
+  private final long failed;
+
+  LoadTestResult(String name, double offeredRate, long elapsedNanos, Histogram latencies, long succeeded,
+                 long rejectedByBusinessRules, long shed, long failed) {
+    this.name = name;
+    this.offeredRate = offeredRate;
+    this.elapsedNanos = elapsedNanos;
+    this.latencies = latencies;
+    this.succeeded = succeeded;
+    this.rejectedByBusinessRules = rejectedByBusinessRules;
+    this.shed = shed;
+    this.failed = failed;
+  }
+
+  long getFailed() {
+    return failed;
+  }
+
+  long getTotal() {
+    return succeeded + rejectedByBusinessRules + shed + failed;
+  }
+
+  Map<String, Object> toReport() {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("mix", name);
+    report.put("offeredRequestsPerSecond", offeredRate);
+    report.put("achievedRequestsPerSecond", Math.round(getTotal() / (elapsedNanos / 1e9) * 10) / 10.0);
+    report.put("requests", getTotal());
+    report.put("succeeded", succeeded);
+    report.put("rejectedByBusinessRules", rejectedByBusinessRules);
+    report.put("shed", shed);
+    report.put("failed", failed);
+    Map<String, Double> percentiles = new LinkedHashMap<>();
+    for (double percentile : new double[]{50, 90, 99, 99.9}) {
+      percentiles.put("p" + percentile, millis(latencies.getValueAtPercentile(percentile)));
+    }
+    percentiles.put("max", millis(latencies.getMaxValue()));
+    report.put("latencyMillis", percentiles);
+    return report;
+  }
+
+  private static double millis(long nanos) {
+    return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+  }
+}
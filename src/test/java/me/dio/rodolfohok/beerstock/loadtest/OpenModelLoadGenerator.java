@@ -0,0 +1,83 @@
+package me.dio.rodolfohok.beerstock.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Sends requests at a fixed arrival rate regardless of how fast responses come back, the open
+ * model of real users. Latency is measured from the time a request was scheduled to go out, not
+ * from when it was actually sent, so a stalled server shows up in the percentiles instead of
+ * silently lowering the offered load (coordinated omission).
+ */
+final class OpenModelLoadGenerator {
+
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final HttpClient httpClient;
+  private final int clients;
+
+  OpenModelLoadGenerator(HttpClient httpClient, int clients) {
+    this.httpClient = httpClient;
+    this.clients = clients;
+  }
+
+  LoadTestResult run(String name, double requestsPerSecond, Duration duration,
+                     Function<ThreadLocalRandom, HttpRequest.Builder> requests) {
+    Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+    AtomicLong succeeded = new AtomicLong();
+    AtomicLong rejectedByBusinessRules = new AtomicLong();
+    AtomicLong shed = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    ConcurrentLinkedQueue<CompletableFuture<Void>> inFlight = new ConcurrentLinkedQueue<>();
+
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    long total = (long) (requestsPerSecond * duration.toSeconds());
+    long start = System.nanoTime();
+    for (long i = 0; i < total; i++) {
+      long intendedStart = start + i * intervalNanos;
+      long wait = intendedStart - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      HttpRequest request = requests.apply(random)
+          .header("X-Client-Id", "load-client-" + random.nextInt(clients))
+          .timeout(Duration.ofSeconds(30))
+          .build();
+      CompletableFuture<Void> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .handle((result, error) -> {
+            latencies.recordValue(Math.min(System.nanoTime() - intendedStart, HIGHEST_TRACKABLE_NANOS));
+            if (error != null) {
+              failed.incrementAndGet();
+            } else if (result.statusCode() < 300) {
+              succeeded.incrementAndGet();
+            } else if (result.statusCode() == 429 || result.statusCode() == 503) {
+              shed.incrementAndGet();
+            } else if (result.statusCode() < 500) {
+              rejectedByBusinessRules.incrementAndGet();
+            } else {
+              failed.incrementAndGet();
+            }
+            return null;
+          });
+      inFlight.add(response);
+      inFlight.removeIf(CompletableFuture::isDone);
+    }
+    CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+    long elapsedNanos = System.nanoTime() - start;
+    return new LoadTestResult(name, requestsPerSecond, elapsedNanos, latencies,
+        succeeded.get(), rejectedByBusinessRules.get(), shed.get(), failed.get());
+  }
+}
@@ -0,0 +1,103 @@
+package me.dio.rodolfohok.beerstock.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request mixes modelled on production traffic. Seeded beers are named {@code Beer 0} to
+ * {@code Beer n-1} and the first {@link #HOT_BEERS} of them play the flash-sale items.
+ */
+public enum TrafficMix {
+
+  /**
+   * Catalog browsing: lookups by name dominate, with some listings and restocks.
+   */
+  READ_HEAVY {
+    @Override
+    HttpRequest.Builder next(LoadTarget target, ThreadLocalRandom random) {
+      int roll = random.nextInt(100);
+      if (roll < 90) {
+        return target.get("/api/v1/beers/" + encode("Beer " + random.nextInt(target.beers)));
+      }
+      if (roll < 98) {
+        return target.get("/api/v1/beers");
+      }
+      return target.patch("/api/v1/beers/" + target.id(random.nextInt(target.beers)) + "/increment", 1);
+    }
+  },
+
+  /**
+   * A sale on a handful of beers: decrements concentrated on the hot ids, plus shoppers polling
+   * their stock.
+   */
+  FLASH_SALE {
+    @Override
+    HttpRequest.Builder next(LoadTarget target, ThreadLocalRandom random) {
+      int hot = random.nextInt(Math.min(HOT_BEERS, target.beers));
+      if (random.nextInt(100) < 90) {
+        return target.patch("/api/v1/beers/" + target.id(hot) + "/decrement", 1);
+      }
+      return target.get("/api/v1/beers/" + encode("Beer " + hot));
+    }
+  },
+
+  /**
+   * Catalog import: every request registers a new beer.
+   */
+  BULK_CREATE {
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    HttpRequest.Builder next(LoadTarget target, ThreadLocalRandom random) {
+      String body = String.format("{\"name\":\"Imported %d\",\"brand\":\"Load test\",\"max\":500,\"quantity\":10,\"type\":\"LAGER\"}",
+          sequence.incrementAndGet());
+      return target.post("/api/v1/beers", body);
+    }
+  };
+
+  static final int HOT_BEERS = 5;
+
+  abstract HttpRequest.Builder next(LoadTarget target, ThreadLocalRandom random);
+
+  private static String encode(String name) {
+    return name.replace(" ", "%20");
+  }
+
+  /**
+   * Base URL and seeded catalog of the application under test.
+   */
+  static final class LoadTarget {
+
+    private final String baseUrl;
+    private final long firstId;
+    private final int beers;
+
+    LoadTarget(String baseUrl, long firstId, int beers) {
+      this.baseUrl = baseUrl;
+      this.firstId = firstId;
+      this.beers = beers;
+    }
+
+    long id(int index) {
+      return firstId + index;
+    }
+
+    HttpRequest.Builder get(String path) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    HttpRequest.Builder patch(String path, int quantity) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + path))
+          .header("Content-Type", "application/json")
+          .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"quantity\":" + quantity + "}"));
+    }
+
+    HttpRequest.Builder post(String path, String body) {
+      return HttpRequest.newBuilder(URI.create(baseUrl + path))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+  }
+}
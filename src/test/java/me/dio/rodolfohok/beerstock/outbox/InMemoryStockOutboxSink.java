@@ -0,0 +1,29 @@
+package me.dio.rodolfohok.beerstock.outbox;
+
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryStockOutboxSink implements StockOutboxSink {
+
+  private final List<StockOutboxEvent> publishedEvents = new ArrayList<>();
+  private boolean failing;
+
+  @Override
+  public synchronized void publish(List<StockOutboxEvent> events) throws IOException {
+    if (failing) {
+      throw new IOException("Sink unavailable");
+    }
+    publishedEvents.addAll(events);
+  }
+
+  public synchronized List<StockOutboxEvent> getPublishedEvents() {
+    return new ArrayList<>(publishedEvents);
+  }
+
+  public synchronized void setFailing(boolean failing) {
+    this.failing = failing;
+  }
+}
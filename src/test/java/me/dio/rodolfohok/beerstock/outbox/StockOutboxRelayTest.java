@@ -0,0 +1,102 @@
+package me.dio.rodolfohok.beerstock.outbox;
+
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
+import me.dio.rodolfohok.beerstock.repository.StockOutboxEventRepository;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockOutboxRelayTest {
+
+  private static final int BATCH_SIZE = 2;
+  private static final Duration SETTLE_DELAY = Duration.ofSeconds(1);
+
+  @Mock
+  private StockOutboxEventRepository stockOutboxEventRepository;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  private final InMemoryStockOutboxSink sink = new InMemoryStockOutboxSink();
+  private StockOutboxRelay stockOutboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    stockOutboxRelay = new StockOutboxRelay(stockOutboxEventRepository, sink, new TransactionTemplate(transactionManager),
+        new BeerShards(false, 1), BATCH_SIZE, Duration.ofMinutes(60), SETTLE_DELAY);
+  }
+
+  @Test
+  void whenEventsArePendingThenTheyArePublishedInOrderAndMarked() {
+    // given
+    List<StockOutboxEvent> firstBatch = List.of(event(1L), event(2L));
+    List<StockOutboxEvent> secondBatch = List.of(event(3L));
+    // when
+    when(stockOutboxEventRepository.findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(any(), eq(PageRequest.of(0, BATCH_SIZE))))
+        .thenReturn(firstBatch, secondBatch);
+    stockOutboxRelay.relay();
+    // then
+    assertThat(sink.getPublishedEvents(), contains(event(1L), event(2L), event(3L)));
+    verify(stockOutboxEventRepository, times(1)).markPublished(eq(List.of(1L, 2L)), any());
+    verify(stockOutboxEventRepository, times(1)).markPublished(eq(List.of(3L)), any());
+  }
+
+  @Test
+  void whenSinkFailsThenEventsAreNotMarkedAsPublished() {
+    // given
+    sink.setFailing(true);
+    // when
+    when(stockOutboxEventRepository.findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(any(), eq(PageRequest.of(0, BATCH_SIZE))))
+        .thenReturn(List.of(event(1L)));
+    stockOutboxRelay.relay();
+    // then
+    assertThat(sink.getPublishedEvents(), is(empty()));
+    verify(stockOutboxEventRepository, never()).markPublished(any(), any());
+  }
+
+  @Test
+  void whenNothingIsPendingThenSinkIsNotCalled() {
+    // when
+    when(stockOutboxEventRepository.findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(any(), eq(PageRequest.of(0, BATCH_SIZE))))
+        .thenReturn(Collections.emptyList());
+    stockOutboxRelay.relay();
+    // then
+    assertThat(sink.getPublishedEvents(), is(empty()));
+  }
+
+  @Test
+  void whenEventsArePolledThenOnlySettledOnesAreAskedFor() {
+    // given
+    Instant before = Instant.now();
+    // when
+    when(stockOutboxEventRepository.findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(any(), eq(PageRequest.of(0, BATCH_SIZE))))
+        .thenReturn(Collections.emptyList());
+    stockOutboxRelay.relay();
+    // then
+    ArgumentCaptor<Instant> settledBefore = ArgumentCaptor.forClass(Instant.class);
+    verify(stockOutboxEventRepository).findByPublishedAtIsNullAndOccurredAtBeforeOrderByIdAsc(settledBefore.capture(), any());
+    assertThat(settledBefore.getValue(), is(lessThanOrEqualTo(Instant.now().minus(SETTLE_DELAY))));
+    assertThat(settledBefore.getValue(), is(greaterThanOrEqualTo(before.minus(SETTLE_DELAY))));
+  }
+
+  private StockOutboxEvent event(Long id) {
+    return new StockOutboxEvent(id, 1L, StockEventType.INCREMENTED, "Brahma", "Ambev", 50, BeerType.LAGER, 5, 15, Instant.EPOCH, null);
+  }
+}
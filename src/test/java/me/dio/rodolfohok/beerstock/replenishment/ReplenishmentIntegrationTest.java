@@ -0,0 +1,58 @@
+package me.dio.rodolfohok.beerstock.replenishment;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:replenishment;DB_CLOSE_DELAY=-1",
+    "beerstock.replenishment.chunk-size=2"})
+@AutoConfigureMockMvc
+public class ReplenishmentIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BeerService beerService;
+
+  @Test
+  void whenBeersAreDecrementedThenTheirConsumptionDrivesTheReplenishmentPlan() throws Exception {
+    // given
+    BeerDTO selling = beerService.createBeer(newBeer("Selling", "Ambev", 10));
+    beerService.createBeer(newBeer("Idle", "Ambev", 10));
+    beerService.createBeer(newBeer("Sold out", "Colorado", 0));
+    beerService.decrement(selling.getId(), 4);
+    beerService.decrement(selling.getId(), 4);
+    // then: 8 sold within the week-long window leaves two beers for less than two days
+    mockMvc.perform(get("/api/v1/beers/replenishment"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.beersPlanned", is(3)))
+        .andExpect(jsonPath("$.brands", hasSize(2)))
+        .andExpect(jsonPath("$.brands[0].brand", is("Ambev")))
+        .andExpect(jsonPath("$.brands[0].suggestions", hasSize(1)))
+        .andExpect(jsonPath("$.brands[0].suggestions[0].name", is("Selling")))
+        .andExpect(jsonPath("$.brands[0].suggestions[0].consumptionPerDay", closeTo(8 / 7.0, 1e-9)))
+        .andExpect(jsonPath("$.brands[0].suggestions[0].reorderQuantity", is(48)))
+        .andExpect(jsonPath("$.brands[1].brand", is("Colorado")))
+        .andExpect(jsonPath("$.brands[1].suggestions[0].reorderQuantity", is(50)));
+  }
+
+  private static BeerDTO newBeer(String name, String brand, int quantity) {
+    return BeerDTOBuilder.builder().id(null).name(name).brand(brand).quantity(quantity).build().toBeerDTO();
+  }
+}
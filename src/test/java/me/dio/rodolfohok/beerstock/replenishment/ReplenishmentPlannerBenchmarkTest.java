@@ -0,0 +1,67 @@
+package me.dio.rodolfohok.beerstock.replenishment;
+
+import me.dio.rodolfohok.beerstock.BeerstockApplication;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentPlanDTO;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Plans replenishment for one million beers, a tenth of them with consumption recorded in the
+ * stock history, once with a single planning thread and once with the default parallelism. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ReplenishmentPlannerBenchmarkTest {
+
+  private static final int ROWS = 1_000_000;
+  private static final int SELLING_EVERY = 10;
+  private static final int BATCH_SIZE = 10_000;
+
+  @Test
+  void planOneMillionBeers() {
+    for (int parallelism : new int[]{1, Runtime.getRuntime().availableProcessors()}) {
+      try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+          .run("--server.port=0", "--grpc.server.port=0", "--beerstock.outbox.relay.enabled=false",
+              "--spring.datasource.url=jdbc:h2:mem:replenishment-benchmark-" + parallelism + ";DB_CLOSE_DELAY=-1",
+              "--beerstock.replenishment.parallelism=" + parallelism)) {
+        populate(context.getBean(JdbcTemplate.class), context.getBean(StockHistory.class));
+        ReplenishmentPlanner planner = context.getBean(ReplenishmentPlanner.class);
+        planner.plan();
+        long start = System.nanoTime();
+        ReplenishmentPlanDTO plan = planner.plan();
+        long elapsed = System.nanoTime() - start;
+        assertThat(plan.getBeersPlanned(), is((long) ROWS));
+        System.out.printf("replenishment plan of %d beers with parallelism %d: %d ms, %d brands to reorder%n",
+            ROWS, parallelism, TimeUnit.NANOSECONDS.toMillis(elapsed), plan.getBrands().size());
+      }
+    }
+  }
+
+  private static void populate(JdbcTemplate jdbcTemplate, StockHistory stockHistory) {
+    BeerType[] types = BeerType.values();
+    List<Object[]> beers = new ArrayList<>(BATCH_SIZE);
+    for (int i = 1; i <= ROWS; i++) {
+      beers.add(new Object[]{i, "Beer " + i, "Brand " + (i % 500), 100, i % 100, types[i % types.length].name()});
+      if (i % SELLING_EVERY == 0) {
+        stockHistory.record((long) i, i % 100, i % 7 + 1);
+      }
+      if (beers.size() == BATCH_SIZE) {
+        jdbcTemplate.batchUpdate("insert into beer (id, name, brand, max, quantity, type) values (?, ?, ?, ?, ?, ?)", beers);
+        beers.clear();
+      }
+    }
+    jdbcTemplate.batchUpdate("insert into beer (id, name, brand, max, quantity, type) values (?, ?, ?, ?, ?, ?)", beers);
+  }
+}
@@ -0,0 +1,163 @@
+package me.dio.rodolfohok.beerstock.replenishment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.dio.rodolfohok.beerstock.dto.BrandReplenishmentDTO;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentPlanDTO;
+import me.dio.rodolfohok.beerstock.dto.ReplenishmentSuggestionDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplenishmentPlannerTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+  private static final Duration WINDOW = Duration.ofDays(1);
+  private static final int CHUNK_SIZE = 2;
+
+  @Mock
+  private BeerRepository beerRepository;
+
+  @Spy
+  private StockHistory stockHistory = new StockHistory(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofHours(1), Duration.ofDays(30));
+
+  private ReplenishmentPlanner replenishmentPlanner;
+
+  @BeforeEach
+  void setUp() {
+    replenishmentPlanner = new ReplenishmentPlanner(beerRepository, stockHistory,
+        Clock.fixed(NOW, ZoneOffset.UTC), WINDOW, 7, CHUNK_SIZE, 2, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    replenishmentPlanner.shutdown();
+  }
+
+  @Test
+  void whenBeersRunOutWithinTheHorizonThenReordersUpToMaxAreSuggestedByBrand() {
+    // given
+    catalog(
+        new Beer(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER),
+        new Beer(2L, "Skol", "Ambev", 40, 30, BeerType.LAGER),
+        new Beer(3L, "Appia", "Colorado", 30, 0, BeerType.WEISS),
+        new Beer(4L, "Bohemia", "Ambev", 20, 20, BeerType.LAGER),
+        new Beer(5L, "Indica", "Colorado", 60, 6, BeerType.IPA));
+    consumed(1L, 5);
+    consumed(2L, 1);
+    consumed(5L, 3);
+    // when
+    ReplenishmentPlanDTO plan = replenishmentPlanner.plan();
+    // then
+    assertThat(plan.getBeersPlanned(), is(5L));
+    assertThat(plan.getPlannedAt(), is(NOW));
+    assertThat(brands(plan), contains("Ambev", "Colorado"));
+    BrandReplenishmentDTO ambev = plan.getBrands().get(0);
+    assertThat(ambev.getReorderQuantity(), is(40L));
+    assertThat(ambev.getSuggestions(), contains(new ReplenishmentSuggestionDTO(1L, "Brahma", 10, 50, 5.0, 2.0, 40)));
+    BrandReplenishmentDTO colorado = plan.getBrands().get(1);
+    assertThat(colorado.getReorderQuantity(), is(84L));
+    assertThat(colorado.getSuggestions(), contains(
+        new ReplenishmentSuggestionDTO(3L, "Appia", 0, 30, 0.0, 0.0, 30),
+        new ReplenishmentSuggestionDTO(5L, "Indica", 6, 60, 3.0, 2.0, 54)));
+  }
+
+  @Test
+  void whenCatalogIsLargerThanAChunkThenItIsReadByIdInChunks() {
+    // given
+    catalog(
+        new Beer(1L, "Brahma", "Ambev", 50, 0, BeerType.LAGER),
+        new Beer(2L, "Skol", "Ambev", 40, 0, BeerType.LAGER),
+        new Beer(3L, "Appia", "Colorado", 30, 0, BeerType.WEISS));
+    // when
+    ReplenishmentPlanDTO plan = replenishmentPlanner.plan();
+    // then
+    assertThat(plan.getBeersPlanned(), is(3L));
+    verify(beerRepository).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, CHUNK_SIZE));
+    verify(beerRepository).findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, CHUNK_SIZE));
+    verifyNoMoreInteractions(beerRepository);
+  }
+
+  @Test
+  void whenAPlanExistsThenCurrentServesItWithoutPlanningAgain() {
+    // given
+    catalog();
+    ReplenishmentPlanDTO plan = replenishmentPlanner.current();
+    // when
+    ReplenishmentPlanDTO current = replenishmentPlanner.current();
+    // then
+    assertThat(current, is(sameInstance(plan)));
+    assertThat(current.getBrands(), is(empty()));
+    verify(stockHistory, times(1)).consumedSince(NOW.minus(WINDOW));
+  }
+
+  @Test
+  void whenCallersWaitForTheFirstPlanThenItIsPlannedOnce() throws Exception {
+    // given
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, CHUNK_SIZE))).thenAnswer(invocation -> {
+      reading.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return List.of();
+    });
+    // when
+    CompletableFuture<ReplenishmentPlanDTO> first = CompletableFuture.supplyAsync(replenishmentPlanner::current);
+    reading.await(5, TimeUnit.SECONDS);
+    Thread waiting = new Thread(replenishmentPlanner::current);
+    waiting.start();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (waiting.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    waiting.join(5_000);
+    // then
+    verify(stockHistory, times(1)).consumedSince(NOW.minus(WINDOW));
+    verify(beerRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+  }
+
+  private void catalog(Beer... beers) {
+    List<Beer> catalog = List.of(beers);
+    lenient().when(beerRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), eq(PageRequest.of(0, CHUNK_SIZE))))
+        .thenAnswer(invocation -> {
+          long lastId = invocation.getArgument(0);
+          return catalog.stream()
+              .filter(beer -> beer.getId() > lastId)
+              .limit(CHUNK_SIZE)
+              .collect(Collectors.toList());
+        });
+  }
+
+  private void consumed(Long beerId, int units) {
+    stockHistory.record(beerId, 0, units);
+  }
+
+  private static List<String> brands(ReplenishmentPlanDTO plan) {
+    return plan.getBrands().stream().map(BrandReplenishmentDTO::getBrand).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,109 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import me.dio.rodolfohok.beerstock.BeerstockApplication;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Runs a primary and its followers as separate application contexts in this JVM, each with its
+ * own in-memory database and HTTP port on localhost.
+ */
+public class ReplicationClusterTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+  private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    nodes.forEach(ConfigurableApplicationContext::close);
+  }
+
+  @Test
+  void whenPrimaryChangesStockThenFollowerAppliesTheDeltas() throws Exception {
+    // given
+    ConfigurableApplicationContext primary = startNode("primary", null);
+    ConfigurableApplicationContext follower = startNode("follower", baseUrl(primary));
+    BeerService primaryBeers = primary.getBean(BeerService.class);
+    BeerRepository followerBeers = follower.getBean(BeerRepository.class);
+    // when
+    BeerDTO created = primaryBeers.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+    primaryBeers.increment(created.getId(), 5);
+    primaryBeers.decrement(created.getId(), 3);
+    // then
+    awaitUntil(() -> followerBeers.findById(created.getId()).map(Beer::getQuantity).orElse(-1) == 12);
+    assertThat(followerBeers.findById(created.getId()).map(Beer::getName), is(Optional.of(created.getName())));
+    // when
+    primaryBeers.deleteById(created.getId());
+    // then
+    awaitUntil(() -> followerBeers.findById(created.getId()).isEmpty());
+    ReplicationFollower replicationFollower = follower.getBean(ReplicationFollower.class);
+    awaitUntil(() -> replicationFollower.getLagEvents() == 0);
+  }
+
+  @Test
+  void whenFollowerJoinsLateThenItCatchesUpFromTheSnapshot() throws Exception {
+    // given
+    ConfigurableApplicationContext primary = startNode("primary", null);
+    BeerService primaryBeers = primary.getBean(BeerService.class);
+    BeerDTO brahma = primaryBeers.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+    BeerDTO skol = primaryBeers.createBeer(BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO());
+    primaryBeers.increment(skol.getId(), 20);
+    // when
+    ConfigurableApplicationContext follower = startNode("follower", baseUrl(primary));
+    BeerRepository followerBeers = follower.getBean(BeerRepository.class);
+    primaryBeers.decrement(brahma.getId(), 4);
+    // then
+    awaitUntil(() -> followerBeers.findById(brahma.getId()).map(Beer::getQuantity).orElse(-1) == 6);
+    assertThat(followerBeers.findById(skol.getId()).map(Beer::getQuantity), is(Optional.of(30)));
+    assertThat(follower.getBean(ReplicationFollower.class).getAppliedSequence(), is(greaterThan(0L)));
+  }
+
+  private ConfigurableApplicationContext startNode(String role, String primaryUrl) {
+    List<String> properties = new ArrayList<>(List.of(
+        "server.port=0",
+        "grpc.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:" + role + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+        "beerstock.outbox.relay.enabled=false",
+        "beerstock.swagger.enabled=false",
+        "beerstock.replication.role=" + role,
+        "beerstock.replication.settle-millis=50",
+        "beerstock.replication.poll-millis=50"));
+    if (primaryUrl != null) {
+      properties.add("beerstock.replication.primary-url=" + primaryUrl);
+    }
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+        .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    nodes.add(context);
+    return context;
+  }
+
+  private static String baseUrl(ConfigurableApplicationContext node) {
+    return "http://localhost:" + node.getEnvironment().getProperty("local.server.port");
+  }
+
+  private static void awaitUntil(Supplier<Boolean> condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (!condition.get()) {
+      assertThat("condition not met within " + TIMEOUT, System.nanoTime() < deadline, is(true));
+      Thread.sleep(20);
+    }
+  }
+}
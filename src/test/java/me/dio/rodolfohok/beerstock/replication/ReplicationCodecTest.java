@@ -0,0 +1,57 @@
+package me.dio.rodolfohok.beerstock.replication;
+
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.entity.StockOutboxEvent;
+import me.dio.rodolfohok.beerstock.enums.BeerType;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReplicationCodecTest {
+
+  @Test
+  void whenSnapshotIsWrittenThenItIsReadBackUnchanged() throws IOException {
+    // given
+    ReplicationSnapshot snapshot = new ReplicationSnapshot(42L, List.of(
+        new Beer(1L, "Brahma", "Ambev", 50, 10, BeerType.LAGER),
+        new Beer(7L, "Colorado Appia", "Colorado", 30, 0, BeerType.WEISS)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // when
+    ReplicationCodec.writeSnapshot(snapshot, out);
+    // then
+    assertThat(ReplicationCodec.readSnapshot(new ByteArrayInputStream(out.toByteArray())), is(equalTo(snapshot)));
+  }
+
+  @Test
+  void whenDeltasAreWrittenThenTheyAreReadBackUnchanged() throws IOException {
+    // given
+    ReplicationDeltas deltas = new ReplicationDeltas(9L, List.of(
+        new StockOutboxEvent(8L, 1L, StockEventType.INCREMENTED, "Brahma", "Ambev", 50, BeerType.LAGER, 5, 15,
+            Instant.ofEpochMilli(1_000L), null),
+        new StockOutboxEvent(9L, 1L, StockEventType.DELETED, "Brahma", "Ambev", 50, BeerType.LAGER, -15, 0,
+            Instant.ofEpochMilli(2_000L), null)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // when
+    ReplicationCodec.writeDeltas(deltas, out);
+    // then
+    assertThat(ReplicationCodec.readDeltas(new ByteArrayInputStream(out.toByteArray())), is(equalTo(deltas)));
+  }
+
+  @Test
+  void whenStreamIsNotASnapshotThenAnExceptionIsThrown() throws IOException {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ReplicationCodec.writeDeltas(new ReplicationDeltas(0L, List.of()), out);
+    // then
+    assertThrows(IOException.class, () -> ReplicationCodec.readSnapshot(new ByteArrayInputStream(out.toByteArray())));
+  }
+}
@@ -0,0 +1,100 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.QuantityDTO;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static me.dio.rodolfohok.beerstock.utils.JsonConversionUnit.asJsonString;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Like {@link ReadWriteRoutingIntegrationTest}, but with stock writes combined, so they commit on
+ * the combiner's flush thread rather than on the request thread that bound the client.
+ */
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:combined-routing-primary;DB_CLOSE_DELAY=-1",
+    "beerstock.stock.write-combining.enabled=true",
+    "beerstock.routing.enabled=true",
+    "beerstock.routing.replica.url=jdbc:h2:mem:combined-routing-replica;DB_CLOSE_DELAY=-1",
+    "beerstock.routing.stand-in.enabled=true",
+    "beerstock.routing.stand-in.sync-millis=3600000",
+    "beerstock.routing.heartbeat-millis=3600000",
+    "beerstock.routing.read-your-writes-millis=60000",
+    "beerstock.routing.max-replica-lag-millis=60000"})
+@AutoConfigureMockMvc
+public class CombinedWritesRoutingIntegrationTest {
+
+  private static final String CLIENT_ID_HEADER = "X-Client-Id";
+  private static final int REPLICA_QUANTITY = 7;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private BeerRepository beerRepository;
+
+  @Autowired
+  private H2ReplicaStandIn standIn;
+
+  @Autowired
+  private ReplicaLagMonitor replicaLagMonitor;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private DataSource replicaDataSource;
+
+  private BeerDTO beer;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    beer = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Combined").quantity(10).build().toBeerDTO());
+    replicaLagMonitor.heartbeat();
+    standIn.sync();
+    replicaLagMonitor.heartbeat();
+    new JdbcTemplate(replicaDataSource).update("update beer set quantity = ? where id = ?", REPLICA_QUANTITY, beer.getId());
+  }
+
+  @AfterEach
+  void tearDown() {
+    beerRepository.deleteAll();
+  }
+
+  @Test
+  void whenClientJustWroteThroughTheCombinerThenItsReadsAreServedFromThePrimary() throws Exception {
+    // when
+    mockMvc.perform(patch("/api/v1/beers/" + beer.getId() + "/increment")
+            .header(CLIENT_ID_HEADER, "writer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(QuantityDTO.builder().quantity(5).build())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.quantity", is(15)));
+    // then
+    mockMvc.perform(get("/api/v1/beers/Combined").header(CLIENT_ID_HEADER, "writer"))
+        .andExpect(jsonPath("$.quantity", is(15)));
+    mockMvc.perform(get("/api/v1/beers/Combined").header(CLIENT_ID_HEADER, "reader"))
+        .andExpect(jsonPath("$.quantity", is(REPLICA_QUANTITY)));
+  }
+}
@@ -0,0 +1,155 @@
+package me.dio.rodolfohok.beerstock.routing;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.QuantityDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationDTO;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import me.dio.rodolfohok.beerstock.service.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static me.dio.rodolfohok.beerstock.utils.JsonConversionUnit.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application on two H2 databases kept in sync by {@link H2ReplicaStandIn}. Scheduled
+ * syncs and heartbeats are pushed out of the way, so each test decides when the replica catches
+ * up; replica rows are then edited behind the stand-in's back to tell which database served a read.
+ */
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "beerstock.routing.enabled=true",
+    "beerstock.routing.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    "beerstock.routing.stand-in.enabled=true",
+    "beerstock.routing.stand-in.sync-millis=3600000",
+    "beerstock.routing.heartbeat-millis=3600000",
+    "beerstock.routing.read-your-writes-millis=60000",
+    "beerstock.routing.max-replica-lag-millis=500"})
+@AutoConfigureMockMvc
+public class ReadWriteRoutingIntegrationTest {
+
+  private static final String CLIENT_ID_HEADER = "X-Client-Id";
+  private static final int REPLICA_QUANTITY = 7;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private ReservationService reservationService;
+
+  @Autowired
+  private BeerRepository beerRepository;
+
+  @Autowired
+  private H2ReplicaStandIn standIn;
+
+  @Autowired
+  private ReplicaLagMonitor replicaLagMonitor;
+
+  @Autowired
+  @Qualifier("replicaDataSource")
+  private DataSource replicaDataSource;
+
+  private BeerDTO beer;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    beer = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Routed").quantity(10).build().toBeerDTO());
+    catchUp();
+    new JdbcTemplate(replicaDataSource).update("update beer set quantity = ? where id = ?", REPLICA_QUANTITY, beer.getId());
+  }
+
+  @AfterEach
+  void tearDown() {
+    beerRepository.deleteAll();
+  }
+
+  @Test
+  void whenReplicaIsCaughtUpThenReadsAreServedFromIt() throws Exception {
+    // then
+    mockMvc.perform(get("/api/v1/beers/Routed").header(CLIENT_ID_HEADER, "reader"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.quantity", is(REPLICA_QUANTITY)));
+  }
+
+  @Test
+  void whenClientJustWroteThenItsReadsAreServedFromThePrimary() throws Exception {
+    // when
+    mockMvc.perform(patch("/api/v1/beers/" + beer.getId() + "/increment")
+            .header(CLIENT_ID_HEADER, "writer")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(QuantityDTO.builder().quantity(5).build())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.quantity", is(15)));
+    // then
+    mockMvc.perform(get("/api/v1/beers/Routed").header(CLIENT_ID_HEADER, "writer"))
+        .andExpect(jsonPath("$.quantity", is(15)));
+    mockMvc.perform(get("/api/v1/beers/Routed").header(CLIENT_ID_HEADER, "reader"))
+        .andExpect(jsonPath("$.quantity", is(REPLICA_QUANTITY)));
+  }
+
+  @Test
+  void whenCatalogListingIsCachedThenItIsReadFromThePrimary() throws Exception {
+    // then: the replica's stock of 7 would be cached under the version the primary is at
+    mockMvc.perform(get("/api/v1/beers").header(CLIENT_ID_HEADER, "reader"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].quantity", is(10)));
+    mockMvc.perform(get("/api/v1/beers").param("page", "0").param("size", "1").header(CLIENT_ID_HEADER, "reader"))
+        .andExpect(jsonPath("$[0].quantity", is(10)));
+  }
+
+  @Test
+  void whenWriteLooksUpTheBeerThenThePrimaryStockIsUsed() throws Exception {
+    // when
+    BeerDTO decremented = beerService.decrement(beer.getId(), 1);
+    // then: the replica's stock of 7 would have given 6
+    assertThat(decremented.getQuantity(), is(9));
+  }
+
+  @Test
+  void whenStockIsReservedThenThePrimaryStockIsUsed() throws Exception {
+    // when
+    ReservationDTO reservation = reservationService.reserve(beer.getId(), 8, 60);
+    // then: the replica's stock of 7 would have rejected the hold
+    assertThat(reservation.getAvailableToPromise(), is(2));
+    reservationService.release(beer.getId(), reservation.getId());
+  }
+
+  @Test
+  void whenReplicaFallsBehindThenReadsAreServedFromThePrimary() throws Exception {
+    // when
+    Thread.sleep(600);
+    replicaLagMonitor.heartbeat();
+    // then
+    assertThat(replicaLagMonitor.isBehind(), is(true));
+    assertThat(beerService.findByName("Routed").getQuantity(), is(10));
+  }
+
+  private void catchUp() {
+    replicaLagMonitor.heartbeat();
+    standIn.sync();
+    replicaLagMonitor.heartbeat();
+  }
+}
@@ -0,0 +1,140 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.tracing.StatementCounter;
+import me.dio.rodolfohok.beerstock.tracing.StatementCounts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Pins the number of statements each {@link BeerService} operation sends to the database, so that
+ * a mapping change which adds a query fails here instead of in production.
+ */
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1"})
+public class BeerServiceStatementCountTest {
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private BeerRepository beerRepository;
+
+  @Autowired
+  private StatementCounter statementCounter;
+
+  @AfterEach
+  void tearDown() {
+    beerRepository.deleteAll();
+  }
+
+  @Test
+  void whenBeerIsCreatedThenOneSelectTwoInsertsAndOneDeleteAreIssued() throws Exception {
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.createBeer(newBeer("Created"));
+      // then: name check, purge of a tombstone holding the name, beer row, outbox row
+      assertCounts(counts, 1, 2, 0, 1);
+    }
+  }
+
+  @Test
+  void whenStockIsIncrementedThenTheStatementBudgetIsKept() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(newBeer("Incremented"));
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.increment(beer.getId(), 5);
+      // then: lookup, merge of the detached beer, beer row, outbox row
+      assertCounts(counts, 2, 1, 1, 0);
+    }
+  }
+
+  @Test
+  void whenStockIsDecrementedThenTheStatementBudgetIsKept() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(newBeer("Decremented"));
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.decrement(beer.getId(), 5);
+      // then
+      assertCounts(counts, 2, 1, 1, 0);
+    }
+  }
+
+  @Test
+  void whenBeerIsFoundByNameThenOneSelectIsIssued() throws Exception {
+    // given
+    beerService.createBeer(newBeer("Found"));
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.findByName("Found");
+      // then
+      assertCounts(counts, 1, 0, 0, 0);
+    }
+  }
+
+  @Test
+  void whenAllBeersAreListedThenOneSelectIsIssuedRegardlessOfTheirNumber() throws Exception {
+    // given
+    for (int i = 0; i < 10; i++) {
+      beerService.createBeer(newBeer("Listed " + i));
+    }
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.listAll();
+      // then
+      assertCounts(counts, 1, 0, 0, 0);
+    }
+  }
+
+  @Test
+  void whenBeersAreLookedUpByNameThenOneSelectIsIssuedPerChunk() throws Exception {
+    // given
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      names.add(beerService.createBeer(newBeer("Looked up " + i)).getName());
+    }
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.lookup(names, List.of(), result -> { });
+      // then
+      assertCounts(counts, 1, 0, 0, 0);
+    }
+  }
+
+  @Test
+  void whenBeerIsDeletedThenTheStatementBudgetIsKept() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(newBeer("Deleted"));
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      beerService.deleteById(beer.getId());
+      // then: tombstone update, outbox row copied from the tombstoned beer
+      assertCounts(counts, 0, 1, 1, 0);
+    }
+  }
+
+  private static BeerDTO newBeer(String name) {
+    return BeerDTOBuilder.builder().id(null).name(name).build().toBeerDTO();
+  }
+
+  private static void assertCounts(StatementCounts counts, int selects, int inserts, int updates, int deletes) {
+    assertThat(counts.toString(), counts.getSelects(), is(selects));
+    assertThat(counts.toString(), counts.getInserts(), is(inserts));
+    assertThat(counts.toString(), counts.getUpdates(), is(updates));
+    assertThat(counts.toString(), counts.getDeletes(), is(deletes));
+  }
+}
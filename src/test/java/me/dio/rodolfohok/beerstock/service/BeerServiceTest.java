@@ -1,22 +1,40 @@
 package me.dio.rodolfohok.beerstock.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.catalog.BeerCatalogSnapshot;
+import me.dio.rodolfohok.beerstock.catalog.CatalogSnapshotHolder;
+import me.dio.rodolfohok.beerstock.catalog.CatalogVersion;
 import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupResultDTO;
 import me.dio.rodolfohok.beerstock.entity.Beer;
 import me.dio.rodolfohok.beerstock.exception.BeerAlreadyRegisteredException;
 import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
 import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.history.StockHistory;
+import me.dio.rodolfohok.beerstock.enums.StockEventType;
 import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import me.dio.rodolfohok.beerstock.outbox.StockChangeOutbox;
 import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.sharding.BeerShards;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -30,6 +48,24 @@ public class BeerServiceTest {
   private final BeerMapper beerMapper = BeerMapper.INSTANCE;
   @Mock
   private BeerRepository beerRepository;
+  @Spy
+  private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+  @Mock
+  private StockWriteCombiner stockWriteCombiner;
+  @Spy
+  private StockHolds stockHolds = new StockHolds();
+  @Mock
+  private StockChangeOutbox stockChangeOutbox;
+  @Spy
+  private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+  @Mock
+  private CatalogSnapshotHolder catalogSnapshotHolder;
+  @Mock
+  private StockHistory stockHistory;
+  @Mock
+  private CatalogVersion catalogVersion;
+  @Spy
+  private BeerShards beerShards = new BeerShards(false, 1);
   @InjectMocks
   private BeerService beerService;
 
@@ -118,18 +154,41 @@ public class BeerServiceTest {
     assertThat(foundBeersDTO, is(empty()));
   }
 
+  @Test
+  void whenFreshListingIsCalledThenItDoesNotJoinAListingInFlight() {
+    // given
+    BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+    // when
+    when(beerRepository.findAll()).thenReturn(Collections.singletonList(expectedFoundBeer));
+    // then
+    assertThat(beerService.listAllFresh(), is(equalTo(List.of(expectedFoundBeerDTO))));
+    verifyNoInteractions(singleFlight);
+  }
+
   @Test
   void whenExclusionIsCalledWithAValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException {
     // given
     BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-    Beer expectedDeletedBeer = beerMapper.toModel(expectedDeletedBeerDTO);
+    List<Long> ids = List.of(expectedDeletedBeerDTO.getId());
     // when
-    when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Optional.of(expectedDeletedBeer));
-    doNothing().when(beerRepository).deleteById(expectedDeletedBeerDTO.getId());
+    when(beerRepository.markDeleted(eq(ids), ArgumentMatchers.any(Instant.class), anyString())).thenReturn(1);
     // then
     beerService.deleteById(expectedDeletedBeerDTO.getId());
-    verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
-    verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+    verify(beerRepository, times(1)).markDeleted(eq(ids), ArgumentMatchers.any(Instant.class), anyString());
+    verify(stockChangeOutbox, times(1)).recordDeleted(eq(ids), anyString());
+    verify(beerRepository, never()).deleteById(anyLong());
+  }
+
+  @Test
+  void whenBeerIsDeletedThenTheCatalogVersionIsBumped() throws BeerNotFoundException {
+    // given
+    BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerRepository.markDeleted(eq(List.of(expectedDeletedBeerDTO.getId())), ArgumentMatchers.any(Instant.class), anyString())).thenReturn(1);
+    beerService.deleteById(expectedDeletedBeerDTO.getId());
+    // then
+    verify(catalogVersion, times(1)).bump();
   }
 
   @Test
@@ -137,9 +196,47 @@ public class BeerServiceTest {
     // given
     BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
     // when
-    when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Optional.empty());
+    when(beerRepository.markDeleted(eq(List.of(expectedDeletedBeerDTO.getId())), ArgumentMatchers.any(Instant.class), anyString())).thenReturn(0);
     // then
     assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(expectedDeletedBeerDTO.getId()));
+    verifyNoInteractions(stockChangeOutbox, catalogVersion);
+  }
+
+  @Test
+  void whenSeveralIdsAreDeletedThenTheyAreTombstonedTogether() {
+    // given
+    List<Long> ids = List.of(1L, 2L, INVALID_BEER_ID + 1);
+    // when
+    when(beerRepository.markDeleted(eq(ids), ArgumentMatchers.any(Instant.class), anyString())).thenReturn(2);
+    int deleted = beerService.deleteAllById(ids);
+    // then
+    assertThat(deleted, is(2));
+    verify(stockChangeOutbox, times(1)).recordDeleted(eq(ids), anyString());
+    verify(catalogVersion, times(1)).bump();
+  }
+
+  @Test
+  void whenDeletedBeerIsRestoredThenItIsAnnouncedAsCreated() throws BeerNotFoundException {
+    // given
+    BeerDTO expectedRestoredBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer expectedRestoredBeer = beerMapper.toModel(expectedRestoredBeerDTO);
+    // when
+    when(beerRepository.restore(expectedRestoredBeerDTO.getId())).thenReturn(1);
+    when(beerRepository.findById(expectedRestoredBeerDTO.getId())).thenReturn(Optional.of(expectedRestoredBeer));
+    BeerDTO restoredBeerDTO = beerService.restore(expectedRestoredBeerDTO.getId());
+    // then
+    assertThat(restoredBeerDTO, is(equalTo(expectedRestoredBeerDTO)));
+    verify(stockChangeOutbox, times(1)).record(expectedRestoredBeer, StockEventType.CREATED, expectedRestoredBeer.getQuantity());
+    verify(catalogVersion, times(1)).bump();
+  }
+
+  @Test
+  void whenBeerThatIsNotDeletedIsRestoredThenThrowAnException() {
+    // when
+    when(beerRepository.restore(INVALID_BEER_ID)).thenReturn(0);
+    // then
+    assertThrows(BeerNotFoundException.class, () -> beerService.restore(INVALID_BEER_ID));
+    verify(beerRepository, never()).findById(anyLong());
   }
 
   @Test
@@ -156,6 +253,7 @@ public class BeerServiceTest {
     BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
     assertThat(expectedQuantityAfterIncrement, equalTo(incrementedBeerDTO.getQuantity()));
     assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
+    verify(stockChangeOutbox, times(1)).record(expectedBeer, StockEventType.INCREMENTED, quantityToIncrement);
   }
 
   @Test
@@ -245,4 +343,86 @@ public class BeerServiceTest {
     // then
     assertThrows(BeerNotFoundException.class, () -> beerService.decrement(INVALID_BEER_ID, quantityToDecrement));
   }
+
+  @Test
+  void whenDecrementWouldTakeHeldUnitsThenThrowException() throws BeerNotFoundException, BeerStockExceededException {
+    // given
+    BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+    // when
+    when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+    stockHolds.hold(expectedBeerDTO.getId(), 8, expectedBeer::getQuantity);
+    // then
+    assertThrows(BeerStockExceededException.class, () -> beerService.decrement(expectedBeerDTO.getId(), 5));
+    verify(beerRepository, never()).save(any());
+    when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+    assertThat(beerService.decrement(expectedBeerDTO.getId(), 8, true).getQuantity(), is(equalTo(2)));
+  }
+
+  @Test
+  void whenWriteCombiningIsEnabledThenDecrementIsQueuedAsANegativeDelta() throws BeerNotFoundException, BeerStockExceededException {
+    // given
+    BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().quantity(5).build().toBeerDTO();
+    // when
+    when(stockWriteCombiner.isEnabled()).thenReturn(true);
+    when(stockWriteCombiner.apply(expectedBeerDTO.getId(), -5, false)).thenReturn(expectedBeerDTO);
+    // then
+    BeerDTO decrementedBeerDTO = beerService.decrement(expectedBeerDTO.getId(), 5);
+    assertThat(decrementedBeerDTO, is(equalTo(expectedBeerDTO)));
+    verify(beerRepository, never()).findById(expectedBeerDTO.getId());
+  }
+
+  @Test
+  void whenCatalogSnapshotIsAvailableThenFindByNameIsServedFromIt() throws BeerNotFoundException {
+    // given
+    BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    BeerCatalogSnapshot snapshot = BeerCatalogSnapshot.of(List.of(beerMapper.toModel(expectedFoundBeerDTO)));
+    // when
+    when(catalogSnapshotHolder.current()).thenReturn(Optional.of(snapshot));
+    // then
+    BeerDTO foundBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
+    assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
+    verify(beerRepository, never()).findByName(expectedFoundBeerDTO.getName());
+  }
+
+  @Test
+  void whenLookupIsCalledThenResultsFollowRequestOrderWithNotFoundMarkers() {
+    // given
+    BeerDTO foundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer foundBeer = beerMapper.toModel(foundBeerDTO);
+    List<BeerLookupResultDTO> results = new ArrayList<>();
+    // when
+    when(catalogSnapshotHolder.current()).thenReturn(Optional.empty());
+    when(beerRepository.findByNameIn(Set.of("Missing", foundBeerDTO.getName()))).thenReturn(List.of(foundBeer));
+    when(beerRepository.findAllById(Set.of(foundBeerDTO.getId(), 99L))).thenReturn(List.of(foundBeer));
+    beerService.lookup(List.of("Missing", foundBeerDTO.getName(), "Missing"), List.of(99L, foundBeerDTO.getId()),
+        results::add);
+    // then
+    assertThat(results, contains(
+        BeerLookupResultDTO.builder().name("Missing").found(false).build(),
+        BeerLookupResultDTO.builder().name(foundBeerDTO.getName()).found(true).beer(foundBeerDTO).build(),
+        BeerLookupResultDTO.builder().name("Missing").found(false).build(),
+        BeerLookupResultDTO.builder().id(99L).found(false).build(),
+        BeerLookupResultDTO.builder().id(foundBeerDTO.getId()).found(true).beer(foundBeerDTO).build()));
+    verify(beerRepository, times(1)).findByNameIn(anyCollection());
+  }
+
+  @Test
+  void whenLookupHasMoreKeysThanAChunkThenDistinctKeysAreQueriedInChunks() {
+    // given
+    List<String> names = IntStream.range(0, 2 * BeerService.LOOKUP_CHUNK_SIZE + 1)
+        .mapToObj(i -> "Beer " + i)
+        .collect(Collectors.toList());
+    List<String> namesWithRepeats = new ArrayList<>(names);
+    namesWithRepeats.addAll(names);
+    List<BeerLookupResultDTO> results = new ArrayList<>();
+    // when
+    when(catalogSnapshotHolder.current()).thenReturn(Optional.empty());
+    when(beerRepository.findByNameIn(anyCollection())).thenReturn(Collections.emptyList());
+    beerService.lookup(namesWithRepeats, Collections.emptyList(), results::add);
+    // then
+    assertThat(results, hasSize(namesWithRepeats.size()));
+    verify(beerRepository, times(3)).findByNameIn(anyCollection());
+    verify(beerRepository, never()).findAllById(anyIterable());
+  }
 }
@@ -0,0 +1,125 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:soft-delete;DB_CLOSE_DELAY=-1",
+    "beerstock.tombstones.purge-interval-millis=3600000",
+    "beerstock.tombstones.purge-batch-size=2"})
+public class BeerSoftDeleteIntegrationTest {
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private BeerRepository beerRepository;
+
+  @Autowired
+  private BeerTombstonePurger beerTombstonePurger;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("delete from beer");
+  }
+
+  @Test
+  void whenBeerIsDeletedThenItIsHiddenUntilRestored() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(newBeer("Tombstoned"));
+    // when
+    beerService.deleteById(beer.getId());
+    // then
+    assertThrows(BeerNotFoundException.class, () -> beerService.findByName("Tombstoned"));
+    assertThat(beerRepository.findById(beer.getId()).isPresent(), is(false));
+    assertThat(beerService.listAll(), is(empty()));
+    assertThat(rows(), is(1));
+    BeerDTO restored = beerService.restore(beer.getId());
+    assertThat(restored, is(equalTo(beer)));
+    assertThat(beerService.findByName("Tombstoned"), is(equalTo(beer)));
+  }
+
+  @Test
+  void whenDeletedNameIsCreatedAgainThenTheTombstoneIsReplaced() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(newBeer("Recreated"));
+    beerService.deleteById(beer.getId());
+    // when
+    BeerDTO recreated = beerService.createBeer(newBeer("Recreated"));
+    // then
+    assertThat(recreated.getId(), is(not(beer.getId())));
+    assertThat(rows(), is(1));
+    assertThrows(BeerNotFoundException.class, () -> beerService.restore(beer.getId()));
+  }
+
+  @Test
+  void whenTombstonesAreOlderThanTheRetentionThenTheyArePurgedInBatches() throws Exception {
+    // given
+    BeerDTO live = beerService.createBeer(newBeer("Live"));
+    BeerDTO recent = beerService.createBeer(newBeer("Recently deleted"));
+    List<Long> old = List.of(
+        beerService.createBeer(newBeer("Old 1")).getId(),
+        beerService.createBeer(newBeer("Old 2")).getId(),
+        beerService.createBeer(newBeer("Old 3")).getId());
+    assertThat(beerService.deleteAllById(old), is(3));
+    beerService.deleteById(recent.getId());
+    jdbcTemplate.update("update beer set deleted_at = ? where id in (?, ?, ?)",
+        Timestamp.from(Instant.now().minus(Duration.ofDays(2))), old.get(0), old.get(1), old.get(2));
+    // when
+    int purged = beerTombstonePurger.purge();
+    // then
+    assertThat(purged, is(3));
+    assertThat(rows(), is(2));
+    assertThat(beerService.findByName("Live"), is(equalTo(live)));
+    assertThat(beerService.restore(recent.getId()), is(equalTo(recent)));
+  }
+
+  @Test
+  void whenDeletesOverlapThenEachBeerRecordsOneDeletedEvent() throws Exception {
+    // given
+    Long first = beerService.createBeer(newBeer("Overlap 1")).getId();
+    Long shared = beerService.createBeer(newBeer("Overlap 2")).getId();
+    Long last = beerService.createBeer(newBeer("Overlap 3")).getId();
+    // when
+    int deleted = beerService.deleteAllById(List.of(first, shared)) + beerService.deleteAllById(List.of(shared, last));
+    // then
+    assertThat(deleted, is(3));
+    assertThat(deletedEvents(first), is(1));
+    assertThat(deletedEvents(shared), is(1));
+    assertThat(deletedEvents(last), is(1));
+  }
+
+  private int deletedEvents(Long beerId) {
+    return jdbcTemplate.queryForObject(
+        "select count(*) from stock_outbox_event where type = 'DELETED' and beer_id = ?", Integer.class, beerId);
+  }
+
+  private int rows() {
+    return jdbcTemplate.queryForObject("select count(*) from beer", Integer.class);
+  }
+
+  private static BeerDTO newBeer(String name) {
+    return BeerDTOBuilder.builder().id(null).name(name).build().toBeerDTO();
+  }
+}
@@ -0,0 +1,59 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class HashedTimerWheelTest {
+
+  private final HashedTimerWheel timerWheel = new HashedTimerWheel("test-wheel", 10, TimeUnit.MILLISECONDS, 8);
+
+  @AfterEach
+  void tearDown() {
+    timerWheel.stop();
+  }
+
+  @Test
+  void whenDelayElapsesThenTaskIsRun() throws InterruptedException {
+    // given
+    CountDownLatch expired = new CountDownLatch(1);
+    long start = System.nanoTime();
+    // when
+    timerWheel.schedule(expired::countDown, 50, TimeUnit.MILLISECONDS);
+    // then
+    assertThat(expired.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(greaterThanOrEqualTo(50L)));
+  }
+
+  @Test
+  void whenDelayIsLongerThanOneRotationThenTaskWaitsForItsRound() throws InterruptedException {
+    // given
+    CountDownLatch expired = new CountDownLatch(1);
+    long start = System.nanoTime();
+    // when
+    timerWheel.schedule(expired::countDown, 250, TimeUnit.MILLISECONDS);
+    // then
+    assertThat(expired.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(greaterThanOrEqualTo(250L)));
+  }
+
+  @Test
+  void whenTimeoutIsCancelledThenTaskIsNotRun() throws InterruptedException {
+    // given
+    AtomicInteger runs = new AtomicInteger();
+    HashedTimerWheel.Timeout timeout = timerWheel.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+    // when
+    boolean cancelled = timeout.cancel();
+    Thread.sleep(100);
+    // then
+    assertThat(cancelled, is(true));
+    assertThat(runs.get(), is(equalTo(0)));
+    assertThat(timerWheel.size(), is(equalTo(0)));
+  }
+}
@@ -0,0 +1,152 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.ReservationDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.exception.ReservationNotFoundException;
+import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationServiceTest {
+
+  private static final long TTL_SECONDS = 60;
+  private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+  @Mock
+  private BeerRepository beerRepository;
+  @Mock
+  private BeerService beerService;
+  private ReservationService reservationService;
+
+  @BeforeEach
+  void setUp() {
+    reservationService = new ReservationService(beerRepository, beerService, new StockHolds(), new SimpleMeterRegistry(), 10, 64);
+  }
+
+  @AfterEach
+  void tearDown() {
+    reservationService.shutdown();
+  }
+
+  @Test
+  void whenReservationIsCreatedThenAvailableToPromiseIsReduced() throws BeerNotFoundException, BeerStockExceededException {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    ReservationDTO reservationDTO = reservationService.reserve(beerDTO.getId(), 4, TTL_SECONDS);
+    // then
+    assertThat(reservationDTO.getAvailableToPromise(), is(equalTo(6)));
+    assertThat(reservationService.availability(beerDTO.getId()).getHeld(), is(equalTo(4)));
+  }
+
+  @Test
+  void whenReservationExceedsAvailableToPromiseThenAnExceptionIsThrown() throws BeerNotFoundException, BeerStockExceededException {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    reservationService.reserve(beerDTO.getId(), 8, TTL_SECONDS);
+    // then
+    assertThrows(BeerStockExceededException.class, () -> reservationService.reserve(beerDTO.getId(), 3, TTL_SECONDS));
+  }
+
+  @Test
+  void whenReservationIsCommittedThenStockIsDecrementedAndHoldReleased() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    when(beerService.decrement(beerDTO.getId(), 4, true)).thenReturn(beerDTO);
+    ReservationDTO reservationDTO = reservationService.reserve(beerDTO.getId(), 4, TTL_SECONDS);
+    reservationService.commit(beerDTO.getId(), reservationDTO.getId());
+    // then
+    verify(beerService, times(1)).decrement(beerDTO.getId(), 4, true);
+    assertThat(reservationService.heldFor(beerDTO.getId()), is(equalTo(0)));
+    assertThrows(ReservationNotFoundException.class, () -> reservationService.release(beerDTO.getId(), reservationDTO.getId()));
+  }
+
+  @Test
+  void whenCommitDecrementFailsThenTheReservationKeepsItsHold() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    when(beerService.decrement(beerDTO.getId(), 4, true))
+        .thenThrow(new BeerStockExceededException(beerDTO.getId(), 4))
+        .thenReturn(beerDTO);
+    ReservationDTO reservationDTO = reservationService.reserve(beerDTO.getId(), 4, TTL_SECONDS);
+    assertThrows(BeerStockExceededException.class, () -> reservationService.commit(beerDTO.getId(), reservationDTO.getId()));
+    // then
+    assertThat(reservationService.heldFor(beerDTO.getId()), is(equalTo(4)));
+    reservationService.commit(beerDTO.getId(), reservationDTO.getId());
+    assertThat(reservationService.heldFor(beerDTO.getId()), is(equalTo(0)));
+  }
+
+  @Test
+  void whenStockDropsBetweenReservationsThenTheHoldIsCheckedAgainstTheNewStock() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    reservationService.reserve(beerDTO.getId(), 4, TTL_SECONDS);
+    beer.setQuantity(6);
+    // then
+    assertThrows(BeerStockExceededException.class, () -> reservationService.reserve(beerDTO.getId(), 3, TTL_SECONDS));
+    assertThat(reservationService.reserve(beerDTO.getId(), 2, TTL_SECONDS).getAvailableToPromise(), is(equalTo(0)));
+  }
+
+  @Test
+  void whenAllHoldsAreReleasedThenTheBeerCanBeReservedAgain() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    ReservationDTO first = reservationService.reserve(beerDTO.getId(), 10, TTL_SECONDS);
+    reservationService.release(beerDTO.getId(), first.getId());
+    ReservationDTO second = reservationService.reserve(beerDTO.getId(), 10, TTL_SECONDS);
+    // then
+    assertThat(second.getAvailableToPromise(), is(equalTo(0)));
+    assertThat(reservationService.heldFor(beerDTO.getId()), is(equalTo(10)));
+  }
+
+  @Test
+  void whenReservationExpiresThenHoldIsReleased() throws Exception {
+    // given
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    ReservationDTO reservationDTO = reservationService.reserve(beerDTO.getId(), 4, 1);
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (reservationService.heldFor(beerDTO.getId()) > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    // then
+    assertThat(reservationService.heldFor(beerDTO.getId()), is(equalTo(0)));
+    assertThrows(ReservationNotFoundException.class, () -> reservationService.commit(beerDTO.getId(), reservationDTO.getId()));
+  }
+}
@@ -0,0 +1,130 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+  @Test
+  void whenIdenticalReadsAreConcurrentThenOnlyOneCallIsExecuted() throws Exception {
+    // given
+    int callers = 8;
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+    // when
+    List<Future<String>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < callers; i++) {
+        results.add(executor.submit(() -> singleFlight.execute("findByName", "Brahma", () -> {
+          executions.incrementAndGet();
+          await(release);
+          return "Brahma";
+        })));
+      }
+      waitUntilCoalesced(callers - 1);
+      release.countDown();
+      // then
+      for (Future<String> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS), is(equalTo("Brahma")));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(executions.get(), is(equalTo(1)));
+  }
+
+  @Test
+  void whenReadsAreSequentialThenEachOneIsExecuted() {
+    // given
+    AtomicInteger executions = new AtomicInteger();
+    // when
+    singleFlight.execute("listAll", "", executions::incrementAndGet);
+    singleFlight.execute("listAll", "", executions::incrementAndGet);
+    // then
+    assertThat(executions.get(), is(equalTo(2)));
+  }
+
+  @Test
+  void whenCallFailsThenExceptionIsPropagatedAndFlightIsCleared() {
+    // when
+    assertThrows(IllegalStateException.class, () -> singleFlight.execute("findByName", "Brahma", () -> {
+      throw new IllegalStateException();
+    }));
+    // then
+    assertThat(singleFlight.execute("findByName", "Brahma", () -> "Brahma"), is(equalTo("Brahma")));
+  }
+
+  @Test
+  void whenCallThrowsAnErrorThenCallersThatJoinedItFailToo() throws Exception {
+    // given
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    // when
+    try {
+      Future<String> leader = executor.submit(() -> singleFlight.execute("findByName", "Brahma", () -> {
+        await(release);
+        throw new AssertionError("boom");
+      }));
+      waitUntilExecuted();
+      Future<String> joiner = executor.submit(() -> singleFlight.execute("findByName", "Brahma", () -> "Brahma"));
+      waitUntilCoalesced(1);
+      release.countDown();
+      // then
+      ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+      ExecutionException joinerFailure = assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS));
+      assertThat(leaderFailure.getCause(), is(instanceOf(AssertionError.class)));
+      assertThat(joinerFailure.getCause(), is(instanceOf(AssertionError.class)));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(singleFlight.execute("findByName", "Brahma", () -> "Brahma"), is(equalTo("Brahma")));
+  }
+
+  private void waitUntilExecuted() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.find("beerstock.singleflight.calls").tag("outcome", "executed").counter() == null
+        && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private void waitUntilCoalesced(int expectedCoalesced) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (coalescedCount() < expectedCoalesced && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private double coalescedCount() {
+    return meterRegistry.find("beerstock.singleflight.calls").tag("outcome", "coalesced").counters()
+        .stream()
+        .mapToDouble(counter -> counter.count())
+        .sum();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
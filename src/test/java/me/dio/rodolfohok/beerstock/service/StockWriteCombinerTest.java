@@ -0,0 +1,172 @@
+package me.dio.rodolfohok.beerstock.service;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.exception.BeerStockExceededException;
+import me.dio.rodolfohok.beerstock.mapper.BeerMapper;
+import me.dio.rodolfohok.beerstock.outbox.StockChangeOutbox;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.routing.ReadYourWrites;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockWriteCombinerTest {
+
+  private static final long WINDOW_MILLIS = 500;
+  private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+  @Mock
+  private BeerRepository beerRepository;
+  @Mock
+  private StockChangeOutbox stockChangeOutbox;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @Mock
+  private ObjectProvider<ReadYourWrites> readYourWrites;
+  private final StockHolds stockHolds = new StockHolds();
+  private StockWriteCombiner stockWriteCombiner;
+
+  @AfterEach
+  void tearDown() {
+    stockWriteCombiner.shutdown();
+  }
+
+  @Test
+  void whenMutationsArriveWithinTheWindowThenTheyAreWrittenOnce() throws Exception {
+    // given
+    stockWriteCombiner = newCombiner(64);
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    CompletableFuture<BeerDTO> firstIncrement = stockWriteCombiner.submit(beerDTO.getId(), 30);
+    CompletableFuture<BeerDTO> secondIncrement = stockWriteCombiner.submit(beerDTO.getId(), 5);
+    CompletableFuture<BeerDTO> rejectedIncrement = stockWriteCombiner.submit(beerDTO.getId(), 10);
+    CompletableFuture<BeerDTO> decrement = stockWriteCombiner.submit(beerDTO.getId(), -45);
+    // then
+    assertThat(firstIncrement.get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(40)));
+    assertThat(secondIncrement.get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(45)));
+    ExecutionException rejection = assertThrows(ExecutionException.class, () -> rejectedIncrement.get(5, TimeUnit.SECONDS));
+    assertThat(rejection.getCause(), is(instanceOf(BeerStockExceededException.class)));
+    assertThat(decrement.get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(0)));
+    assertThat(beer.getQuantity(), is(equalTo(0)));
+    verify(beerRepository, times(1)).findById(beerDTO.getId());
+    verify(beerRepository, times(1)).save(beer);
+    verify(stockChangeOutbox, times(3)).record(eq(beer), any(), anyInt(), anyInt());
+  }
+
+  @Test
+  void whenBatchIsFullThenItIsWrittenWithoutWaitingForTheWindow() throws Exception {
+    // given
+    stockWriteCombiner = newCombiner(2);
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    stockWriteCombiner.submit(beerDTO.getId(), 1);
+    BeerDTO incrementedBeerDTO = stockWriteCombiner.submit(beerDTO.getId(), 1).get(WINDOW_MILLIS / 2, TimeUnit.MILLISECONDS);
+    // then
+    assertThat(incrementedBeerDTO.getQuantity(), is(equalTo(12)));
+  }
+
+  @Test
+  void whenBeerDoesNotExistThenEveryCallerGetsNotFound() {
+    // given
+    stockWriteCombiner = newCombiner(64);
+    long invalidBeerId = 2L;
+    // when
+    when(beerRepository.findById(invalidBeerId)).thenReturn(Optional.empty());
+    // then
+    assertThrows(BeerNotFoundException.class, () -> stockWriteCombiner.apply(invalidBeerId, 5));
+    verify(beerRepository, never()).save(any());
+  }
+
+  @Test
+  void whenQueueIsDrainedThenItIsRemovedAndLaterMutationsStillGoThrough() throws Exception {
+    // given
+    stockWriteCombiner = newCombiner(1);
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    stockWriteCombiner.submit(beerDTO.getId(), 1).get(5, TimeUnit.SECONDS);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (stockWriteCombiner.queuedBeers() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    // then
+    assertThat(stockWriteCombiner.queuedBeers(), is(equalTo(0)));
+    assertThat(stockWriteCombiner.submit(beerDTO.getId(), 1).get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(12)));
+  }
+
+  @Test
+  void whenMutationDoesNotChangeTheStockThenNoEventIsRecorded() throws Exception {
+    // given
+    stockWriteCombiner = newCombiner(1);
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    BeerDTO unchanged = stockWriteCombiner.submit(beerDTO.getId(), 0).get(5, TimeUnit.SECONDS);
+    // then
+    assertThat(unchanged.getQuantity(), is(equalTo(beerDTO.getQuantity())));
+    verify(beerRepository, never()).save(any());
+    verifyNoInteractions(stockChangeOutbox);
+  }
+
+  @Test
+  void whenDecrementWouldTakeHeldUnitsThenOnlyTheCommitGetsThem() throws Exception {
+    // given
+    stockWriteCombiner = newCombiner(64);
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    Beer beer = beerMapper.toModel(beerDTO);
+    stockHolds.hold(beerDTO.getId(), 8, beer::getQuantity);
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenReturn(Optional.of(beer));
+    CompletableFuture<BeerDTO> decrement = stockWriteCombiner.submit(beerDTO.getId(), -5);
+    CompletableFuture<BeerDTO> commit = stockWriteCombiner.submit(beerDTO.getId(), -8, true);
+    CompletableFuture<BeerDTO> decrementAfterCommit = stockWriteCombiner.submit(beerDTO.getId(), -2);
+    // then
+    ExecutionException rejection = assertThrows(ExecutionException.class, () -> decrement.get(5, TimeUnit.SECONDS));
+    assertThat(rejection.getCause(), is(instanceOf(BeerStockExceededException.class)));
+    assertThat(commit.get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(2)));
+    assertThat(decrementAfterCommit.get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(0)));
+  }
+
+  @Test
+  void whenWriteThrowsAnErrorThenEveryCallerInTheBatchGetsIt() {
+    // given
+    stockWriteCombiner = newCombiner(64);
+    BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+    // when
+    when(beerRepository.findById(beerDTO.getId())).thenThrow(new OutOfMemoryError("no room for the beer"));
+    CompletableFuture<BeerDTO> first = stockWriteCombiner.submit(beerDTO.getId(), 1);
+    CompletableFuture<BeerDTO> second = stockWriteCombiner.submit(beerDTO.getId(), -1);
+    // then
+    ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+    assertThat(firstFailure.getCause(), is(instanceOf(OutOfMemoryError.class)));
+    ExecutionException secondFailure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+    assertThat(secondFailure.getCause(), is(instanceOf(OutOfMemoryError.class)));
+  }
+
+  private StockWriteCombiner newCombiner(int maxBatchSize) {
+    return new StockWriteCombiner(beerRepository, stockChangeOutbox, transactionManager, stockHolds, readYourWrites, true, WINDOW_MILLIS, maxBatchSize, 1, 5000);
+  }
+}
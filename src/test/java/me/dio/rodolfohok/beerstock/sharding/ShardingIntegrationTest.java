@@ -0,0 +1,202 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerIdsDTO;
+import me.dio.rodolfohok.beerstock.dto.BeerLookupResultDTO;
+import me.dio.rodolfohok.beerstock.entity.Beer;
+import me.dio.rodolfohok.beerstock.exception.BeerAlreadyRegisteredException;
+import me.dio.rodolfohok.beerstock.exception.BeerNotFoundException;
+import me.dio.rodolfohok.beerstock.replenishment.ReplenishmentPlanner;
+import me.dio.rodolfohok.beerstock.repository.BeerRepository;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static me.dio.rodolfohok.beerstock.utils.JsonConversionUnit.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application on three local H2 databases, one per shard, and checks where each beer
+ * ends up by reading the shards directly.
+ */
+@SpringBootTest(properties = {
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:sharding-0;DB_CLOSE_DELAY=-1",
+    "beerstock.sharding.enabled=true",
+    "beerstock.sharding.shards=3",
+    "beerstock.sharding.url-pattern=jdbc:h2:mem:sharding-%d;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+public class ShardingIntegrationTest {
+
+  private static final int SHARDS = 3;
+  private static final int BEERS = 12;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private BeerRepository beerRepository;
+
+  @Autowired
+  private ReplenishmentPlanner replenishmentPlanner;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ShardRoutingDataSource shardRoutingDataSource;
+
+  private final List<BeerDTO> beers = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws BeerAlreadyRegisteredException {
+    for (int i = 0; i < BEERS; i++) {
+      beers.add(beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Sharded " + i).build().toBeerDTO()));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (int shard = 0; shard < SHARDS; shard++) {
+      shard(shard).update("delete from beer");
+      shard(shard).update("delete from stock_outbox_event");
+    }
+  }
+
+  @Test
+  void whenBeersAreCreatedThenEachIsStoredOnlyOnTheShardItsIdMapsTo() {
+    // then
+    for (BeerDTO beer : beers) {
+      for (int shard = 0; shard < SHARDS; shard++) {
+        Integer rows = shard(shard).queryForObject("select count(*) from beer where name = ?", Integer.class, beer.getName());
+        assertThat(beer.getName(), rows, is(beer.getId() % SHARDS == shard ? 1 : 0));
+      }
+    }
+    assertThat(beers.stream().map(beer -> beer.getId() % SHARDS).distinct().count(), is((long) SHARDS));
+  }
+
+  @Test
+  void whenBeersAreReadThenTheyAreFoundAcrossShards() throws BeerNotFoundException {
+    // then
+    for (BeerDTO beer : beers) {
+      assertThat(beerService.findByName(beer.getName()), is(equalTo(beer)));
+    }
+    List<Long> ids = beers.stream().map(BeerDTO::getId).sorted().collect(Collectors.toList());
+    assertThat(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()), is(ids));
+    assertThat(beerService.listPage(1, 5).stream().map(BeerDTO::getId).collect(Collectors.toList()), is(ids.subList(5, 10)));
+    List<BeerLookupResultDTO> results = new ArrayList<>();
+    beerService.lookup(List.of(beers.get(0).getName(), beers.get(1).getName()), ids, results::add);
+    assertThat(results.stream().filter(BeerLookupResultDTO::isFound).count(), is((long) BEERS + 2));
+    assertThat(replenishmentPlanner.plan().getBeersPlanned(), is((long) BEERS));
+  }
+
+  @Test
+  void whenANameIsTakenThenItIsRejectedWhicheverShardIsAsked() {
+    // then
+    assertThrows(BeerAlreadyRegisteredException.class,
+        () -> beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Sharded 7").build().toBeerDTO()));
+  }
+
+  @Test
+  void whenStockChangesThenOnlyTheShardOfTheBeerIsWritten() throws Exception {
+    // given
+    BeerDTO beer = beers.get(4);
+    // when
+    beerService.increment(beer.getId(), 5);
+    beerService.decrement(beer.getId(), 2);
+    // then
+    int shard = (int) (beer.getId() % SHARDS);
+    assertThat(shard(shard).queryForObject("select quantity from beer where id = ?", Integer.class, beer.getId()),
+        is(beer.getQuantity() + 3));
+    assertThat(shard(shard).queryForObject("select count(*) from stock_outbox_event where beer_id = ?", Integer.class,
+        beer.getId()), is(3));
+  }
+
+  @Test
+  void whenBeersOnSeveralShardsAreDeletedTogetherThenEachShardTombstonesItsOwn() throws Exception {
+    // given
+    List<Long> onePerShard = new ArrayList<>();
+    for (int shard = 0; shard < SHARDS; shard++) {
+      long current = shard;
+      onePerShard.add(beers.stream().map(BeerDTO::getId).filter(id -> id % SHARDS == current).findFirst().orElseThrow());
+    }
+    // when
+    mockMvc.perform(delete("/api/v1/beers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(BeerIdsDTO.builder().ids(onePerShard).build())))
+        .andExpect(status().isNoContent());
+    beerService.restore(onePerShard.get(1));
+    // then
+    assertThat(beerService.listAll(), hasSize(BEERS - 2));
+    for (int shard = 0; shard < SHARDS; shard++) {
+      assertThat(shard(shard).queryForObject("select count(*) from beer where deleted_at is not null", Integer.class),
+          is(shard == 1 ? 0 : 1));
+    }
+  }
+
+  @Test
+  void whenATransactionReachesForAnotherShardThenItFails() {
+    // given
+    BeerDTO first = beers.get(0);
+    BeerDTO other = beers.stream().filter(beer -> beer.getId() % SHARDS != first.getId() % SHARDS).findFirst().orElseThrow();
+    // then
+    assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+      beerRepository.findById(first.getId());
+      beerRepository.findById(other.getId());
+    }));
+    assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> beerRepository.findAll()));
+  }
+
+  @Test
+  void whenShardsArePreparedAgainThenTheirBeersAreKept() throws Exception {
+    // when
+    new ShardSchemaInitializer(shardRoutingDataSource.getShards()).initialize();
+    // then
+    for (int shard = 0; shard < SHARDS; shard++) {
+      long current = shard;
+      assertThat(shard(shard).queryForObject("select count(*) from beer", Integer.class),
+          is((int) beers.stream().filter(beer -> beer.getId() % SHARDS == current).count()));
+    }
+    BeerDTO created = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Sharded after restart").build().toBeerDTO());
+    assertThat(shard((int) (created.getId() % SHARDS)).queryForObject("select count(*) from beer where id = ?",
+        Integer.class, created.getId()), is(1));
+  }
+
+  @Test
+  void whenBeersAreSortedAcrossShardsThenOnlyIdOrderIsAccepted() {
+    // given
+    List<Long> ids = beers.stream().map(BeerDTO::getId).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+    // then
+    assertThat(beerRepository.findAll(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id"))).stream()
+        .map(Beer::getId).collect(Collectors.toList()), is(ids.subList(0, 3)));
+    assertThrows(UnsupportedOperationException.class, () -> beerRepository.findAll(Sort.by("name")));
+  }
+
+  private JdbcTemplate shard(int shard) {
+    return new JdbcTemplate(shardRoutingDataSource.getShards().get(shard));
+  }
+}
@@ -0,0 +1,80 @@
+package me.dio.rodolfohok.beerstock.sharding;
+
+import me.dio.rodolfohok.beerstock.BeerstockApplication;
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures stock write throughput, alternating increments and decrements on random beers from
+ * several threads, with one, two and four shards. Each shard is its own H2 database, so the
+ * numbers show how far spreading the writes helps on this machine. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ShardingWriteBenchmarkTest {
+
+  private static final int BEERS = 1_000;
+  private static final int THREADS = 16;
+  private static final long DURATION_MILLIS = 10_000;
+
+  @Test
+  void writeThroughputAsShardsAreAdded() throws Exception {
+    for (int shards : new int[]{1, 2, 4}) {
+      try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+          .run("--server.port=0", "--grpc.server.port=0", "--beerstock.outbox.relay.enabled=false",
+              "--spring.datasource.url=jdbc:h2:mem:sharding-benchmark-" + shards + "-0;DB_CLOSE_DELAY=-1",
+              "--beerstock.sharding.enabled=true",
+              "--beerstock.sharding.shards=" + shards,
+              "--beerstock.sharding.url-pattern=jdbc:h2:mem:sharding-benchmark-" + shards + "-%d;DB_CLOSE_DELAY=-1",
+              "--beerstock.limiter.enabled=false")) {
+        BeerService beerService = context.getBean(BeerService.class);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < BEERS; i++) {
+          BeerDTO beer = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Beer " + i).quantity(25).build().toBeerDTO());
+          ids.add(beer.getId());
+        }
+        long writes = run(beerService, ids);
+        System.out.printf("%d shards, %d threads: %d writes in %d ms, %d writes/s%n", shards, THREADS, writes,
+            DURATION_MILLIS, writes * 1000 / DURATION_MILLIS);
+      }
+    }
+  }
+
+  private static long run(BeerService beerService, List<Long> ids) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+    List<Future<Long>> workers = new ArrayList<>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      workers.add(executor.submit(() -> {
+        long writes = 0;
+        while (System.currentTimeMillis() < deadline) {
+          Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+          beerService.increment(id, 1);
+          beerService.decrement(id, 1);
+          writes += 2;
+        }
+        return writes;
+      }));
+    }
+    long writes = 0;
+    for (Future<Long> worker : workers) {
+      writes += worker.get();
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    return writes;
+  }
+}
@@ -0,0 +1,27 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class InMemorySpanExporter implements SpanExporter {
+
+  private final List<Span> spans = new ArrayList<>();
+
+  @Override
+  public synchronized void export(Span span) {
+    spans.add(span);
+  }
+
+  public synchronized List<Span> getSpans() {
+    return new ArrayList<>(spans);
+  }
+
+  public synchronized List<Span> getSpans(String traceId) {
+    return spans.stream().filter(span -> span.getTraceId().equals(traceId)).collect(Collectors.toList());
+  }
+
+  public synchronized void clear() {
+    spans.clear();
+  }
+}
@@ -0,0 +1,49 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SlowQueryLogTest {
+
+  @Test
+  void whenStatementHasParametersThenOnlyTheirTypesAreReported() throws Exception {
+    // given
+    List<ParameterSetOperation> parameters = List.of(setLong(1, 42L), setString(2, "Brahma"), setNull(3));
+    // then
+    assertThat(SlowQueryLog.parameterShape(List.of(parameters)), is("(Long, String, null)"));
+  }
+
+  @Test
+  void whenStatementIsABatchThenTheBatchSizeIsReported() throws Exception {
+    // given
+    List<ParameterSetOperation> parameters = List.of(setLong(1, 42L));
+    // then
+    assertThat(SlowQueryLog.parameterShape(List.of(parameters, parameters, parameters)), is("3 x (Long)"));
+  }
+
+  @Test
+  void whenStatementHasNoParametersThenAnEmptyShapeIsReported() {
+    assertThat(SlowQueryLog.parameterShape(List.of()), is("()"));
+  }
+
+  private static ParameterSetOperation setLong(int index, long value) throws NoSuchMethodException {
+    return new ParameterSetOperation(PreparedStatement.class.getMethod("setLong", int.class, long.class),
+        new Object[]{index, value});
+  }
+
+  private static ParameterSetOperation setString(int index, String value) throws NoSuchMethodException {
+    return new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+        new Object[]{index, value});
+  }
+
+  private static ParameterSetOperation setNull(int index) throws NoSuchMethodException {
+    return new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+        new Object[]{index, java.sql.Types.VARCHAR});
+  }
+}
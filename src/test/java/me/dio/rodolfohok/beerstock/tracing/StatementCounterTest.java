@@ -0,0 +1,49 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class StatementCounterTest {
+
+  private final StatementCounter statementCounter = new StatementCounter();
+
+  @Test
+  void whenScopesAreNestedThenStatementsCountTowardsEveryOpenScope() {
+    // when
+    try (StatementCounts outer = statementCounter.start()) {
+      execute("select * from beer where id = ?");
+      try (StatementCounts inner = statementCounter.start()) {
+        execute("update beer set quantity = ? where id = ?");
+        // then
+        assertThat(inner.getUpdates(), is(1));
+        assertThat(inner.getTotal(), is(1));
+      }
+      execute("insert into stock_outbox_event (beer_id) values (?)");
+      assertThat(outer.getSelects(), is(1));
+      assertThat(outer.getUpdates(), is(1));
+      assertThat(outer.getInserts(), is(1));
+      assertThat(outer.getTotal(), is(3));
+    }
+  }
+
+  @Test
+  void whenNoScopeIsOpenThenStatementsAreNotCounted() {
+    // given
+    execute("delete from beer");
+    // when
+    try (StatementCounts counts = statementCounter.start()) {
+      // then
+      assertThat(counts.getTotal(), is(0));
+    }
+  }
+
+  private void execute(String sql) {
+    statementCounter.afterQuery(new ExecutionInfo(), List.of(new QueryInfo(sql)));
+  }
+}
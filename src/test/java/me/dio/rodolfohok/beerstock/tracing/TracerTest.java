@@ -0,0 +1,72 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TracerTest {
+
+  private final InMemorySpanExporter exporter = new InMemorySpanExporter();
+  private final Tracer tracer = new Tracer(exporter);
+
+  @Test
+  void whenSpansAreNestedThenChildrenShareTheTraceAndPointToTheirParent() {
+    // when
+    try (Span root = tracer.start("root", SpanKind.SERVER)) {
+      try (Span child = tracer.start("child", SpanKind.INTERNAL)) {
+        try (Span grandchild = tracer.start("grandchild", SpanKind.CLIENT)) {
+          grandchild.attribute("db.statement", "select 1");
+        }
+      }
+    }
+    // then
+    List<Span> spans = exporter.getSpans();
+    assertThat(spans, hasSize(3));
+    Span grandchild = spans.get(0);
+    Span child = spans.get(1);
+    Span root = spans.get(2);
+    assertThat(root.getParentSpanId(), is(nullValue()));
+    assertThat(child.getParentSpanId(), is(equalTo(root.getSpanId())));
+    assertThat(grandchild.getParentSpanId(), is(equalTo(child.getSpanId())));
+    assertThat(grandchild.getTraceId(), is(equalTo(root.getTraceId())));
+    assertThat(grandchild.getAttributes(), hasEntry("db.statement", "select 1"));
+    assertThat(root.getDurationNanos(), is(greaterThanOrEqualTo(child.getDurationNanos())));
+    assertThat(tracer.current(), is(Optional.empty()));
+  }
+
+  @Test
+  void whenSpanIsClosedTwiceThenItIsExportedOnce() {
+    // when
+    Span span = tracer.start("once", SpanKind.INTERNAL);
+    span.close();
+    span.close();
+    // then
+    assertThat(exporter.getSpans(), hasSize(1));
+  }
+
+  @Test
+  void whenTraceparentIsValidThenTheTraceIsContinued() {
+    // given
+    String traceparent = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+    // when
+    try (Span span = tracer.startRemoteChild(traceparent, "remote", SpanKind.SERVER)) {
+      // then
+      assertThat(span.getTraceId(), is(equalTo("0af7651916cd43dd8448eb211c80319c")));
+      assertThat(span.getParentSpanId(), is(equalTo("b7ad6b7169203331")));
+    }
+  }
+
+  @Test
+  void whenTraceparentIsMalformedThenANewTraceIsStarted() {
+    // when
+    try (Span span = tracer.startRemoteChild("not-a-traceparent", "remote", SpanKind.SERVER)) {
+      // then
+      assertThat(span.getTraceId(), matchesPattern("[0-9a-f]{32}"));
+      assertThat(span.getParentSpanId(), is(nullValue()));
+    }
+  }
+}
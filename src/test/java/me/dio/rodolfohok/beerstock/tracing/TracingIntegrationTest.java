@@ -0,0 +1,86 @@
+package me.dio.rodolfohok.beerstock.tracing;
+
+import me.dio.rodolfohok.beerstock.builder.BeerDTOBuilder;
+import me.dio.rodolfohok.beerstock.dto.BeerDTO;
+import me.dio.rodolfohok.beerstock.dto.QuantityDTO;
+import me.dio.rodolfohok.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static me.dio.rodolfohok.beerstock.utils.JsonConversionUnit.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "beerstock.tracing.enabled=true",
+    "beerstock.outbox.relay.enabled=false",
+    "grpc.server.port=0",
+    "spring.datasource.url=jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+public class TracingIntegrationTest {
+
+  private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+  @TestConfiguration
+  static class RecordingExporterConfig {
+
+    @Bean
+    @Primary
+    InMemorySpanExporter inMemorySpanExporter() {
+      return new InMemorySpanExporter();
+    }
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private BeerService beerService;
+
+  @Autowired
+  private InMemorySpanExporter exporter;
+
+  @Test
+  void whenDecrementIsCalledThenEveryLayerRecordsASpanInTheCallersTrace() throws Exception {
+    // given
+    BeerDTO beer = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Traced").build().toBeerDTO());
+    exporter.clear();
+    // when
+    mockMvc.perform(patch("/api/v1/beers/" + beer.getId() + "/decrement")
+            .header("traceparent", TRACEPARENT)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(asJsonString(QuantityDTO.builder().quantity(5).build())))
+        .andExpect(status().isOk());
+    // then
+    List<Span> spans = exporter.getSpans("4bf92f3577b34da6a3ce929d0e0e4736");
+    Map<String, Span> byName = spans.stream().collect(Collectors.toMap(Span::getName, Function.identity(), (first, second) -> first));
+    assertThat(byName.keySet(), hasItems("HTTP PATCH /api/v1/beers/{id}/decrement", "validate QuantityDTO",
+        "BeerController.decrement", "BeerService.decrement", "BeerRepository.findById", "BeerRepository.save",
+        "SQL SELECT", "SQL UPDATE", "serialize BeerDTO"));
+
+    Span root = byName.get("HTTP PATCH /api/v1/beers/{id}/decrement");
+    assertThat(root.getParentSpanId(), is("00f067aa0ba902b7"));
+    assertThat(root.getAttributes(), hasEntry("http.status_code", 200));
+    assertThat(byName.get("BeerController.decrement").getParentSpanId(), is(root.getSpanId()));
+    assertThat(byName.get("BeerService.decrement").getParentSpanId(),
+        is(byName.get("BeerController.decrement").getSpanId()));
+    assertThat(byName.get("BeerRepository.findById").getParentSpanId(),
+        is(byName.get("BeerService.decrement").getSpanId()));
+    assertThat(byName.get("SQL UPDATE").getAttributes().get("db.statement").toString(), startsWith("update beer"));
+    assertThat(byName.get("serialize BeerDTO").getParentSpanId(), is(root.getSpanId()));
+  }
+}